@@ -0,0 +1,455 @@
+package com.saimaddhi.graph.bench;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import com.saimaddhi.graph.Edge;
+import com.saimaddhi.graph.Graph;
+/**
+ * Benchmarks the main Graph operations on seeded synthetic graphs of several sizes and densities. Every benchmark runs
+ * in its own JVM with the same options as this one, so it does not inherit the JIT profile or heap of the ones before
+ * it. It is warmed up and then measured over time boxed iterations, and the throughput, average latency, allocation
+ * rate and garbage collector activity of each run are written to a JSON file so runs can be compared over time.
+ * <p>
+ * Usage: GraphBenchmark [--vertices 1000,10000,100000] [--degrees 4,16] [--warmup 3] [--iterations 5]
+ * [--millis 500] [--benchmarks addEdge,removeEdge] [--out bench-results.json]
+ * @author saimaddhi
+ *
+ */
+public class GraphBenchmark {
+	/**
+	 * The seed of the synthetic graphs
+	 */
+	private static final long SEED = 42;
+	/**
+	 * Consumes benchmark results so the JIT cannot drop the work that produced them
+	 */
+	private static volatile long sink;
+	/**
+	 * The vertex counts to run
+	 */
+	private int[] vertexCounts = {1000, 10000, 100000};
+	/**
+	 * The average degrees to run
+	 */
+	private int[] degrees = {4, 16};
+	/**
+	 * The number of warmup iterations
+	 */
+	private int warmup = 3;
+	/**
+	 * The number of measured iterations
+	 */
+	private int iterations = 5;
+	/**
+	 * The length of each iteration in milliseconds
+	 */
+	private long millis = 500;
+	/**
+	 * The names of the benchmarks to run, null for all of them
+	 */
+	private List<String> selected = null;
+	/**
+	 * The file the results are written to
+	 */
+	private Path out = Paths.get("bench-results.json");
+	/**
+	 * The benchmark this JVM was forked to run, null in the JVM that forks them
+	 */
+	private String child = null;
+	/**
+	 * Runs the benchmarks
+	 * @param args the command line options
+	 * @throws IOException if the temporary edge files or the results cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		GraphBenchmark benchmark = new GraphBenchmark();
+		for(int i = 0; i + 1 < args.length; i += 2) {
+			String value = args[i + 1];
+			switch(args[i]) {
+				case "--vertices": benchmark.vertexCounts = parseInts(value); break;
+				case "--degrees": benchmark.degrees = parseInts(value); break;
+				case "--warmup": benchmark.warmup = Integer.parseInt(value); break;
+				case "--iterations": benchmark.iterations = Integer.parseInt(value); break;
+				case "--millis": benchmark.millis = Long.parseLong(value); break;
+				case "--benchmarks": benchmark.selected = Arrays.asList(value.split(",")); break;
+				case "--out": benchmark.out = Paths.get(value); break;
+				case "--child": benchmark.child = value; break;
+				default: throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+		if(benchmark.child == null) {
+			benchmark.run();
+		} else {
+			benchmark.runChild();
+		}
+	}
+	/**
+	 * Runs every selected benchmark for every size and density in a forked JVM and writes the results
+	 * @throws IOException if a JVM cannot be forked or the results cannot be written
+	 */
+	private void run() throws IOException {
+		List<String> results = new ArrayList<String>();
+		for(int n : vertexCounts) {
+			for(int degree : degrees) {
+				for(Case c : cases(new Workload(n, degree))) {
+					if(selected != null && !selected.contains(c.name)) continue;
+					results.add(fork(c.name, n, degree));
+				}
+			}
+		}
+		try(BufferedWriter writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+			writer.write("{\n  \"java\": \"" + System.getProperty("java.version") + "\",\n");
+			writer.write("  \"processors\": " + Runtime.getRuntime().availableProcessors() + ",\n");
+			writer.write("  \"timestamp\": " + System.currentTimeMillis() + ",\n");
+			writer.write("  \"results\": [\n");
+			for(int i = 0; i < results.size(); i++) {
+				writer.write("    " + results.get(i) + ((i + 1 < results.size()) ? ",\n" : "\n"));
+			}
+			writer.write("  ]\n}\n");
+		}
+		System.out.println("Results written to " + out.toAbsolutePath());
+	}
+	/**
+	 * Runs one benchmark in a new JVM and returns its result
+	 * @param name the name of the benchmark
+	 * @param n the number of vertices
+	 * @param degree the average degree
+	 * @return the JSON object holding the result
+	 * @throws IOException if the JVM cannot be started or fails
+	 */
+	private String fork(String name, int n, int degree) throws IOException {
+		List<String> command = new ArrayList<String>();
+		command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+		command.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"), GraphBenchmark.class.getName(),
+				"--child", name, "--vertices", Integer.toString(n), "--degrees", Integer.toString(degree),
+				"--warmup", Integer.toString(warmup), "--iterations", Integer.toString(iterations),
+				"--millis", Long.toString(millis)));
+		Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		String result = null;
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
+				StandardCharsets.UTF_8))) {
+			String line;
+			while((line = reader.readLine()) != null) {
+				if(!line.isEmpty()) result = line;
+			}
+		}
+		try {
+			if(process.waitFor() != 0 || result == null) throw new IOException("Benchmark " + name + " failed");
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while running benchmark " + name, e);
+		}
+		System.out.println(result);
+		return result;
+	}
+	/**
+	 * Runs the benchmark this JVM was forked for and prints its result
+	 * @throws IOException if the temporary edge file cannot be deleted
+	 */
+	private void runChild() throws IOException {
+		Workload workload = new Workload(vertexCounts[0], degrees[0]);
+		try {
+			for(Case c : cases(workload)) {
+				if(c.name.equals(child)) System.out.println(measure(c, workload));
+			}
+		} finally {
+			workload.close();
+		}
+	}
+	/**
+	 * Warms up and measures one benchmark
+	 * @param c the benchmark
+	 * @param workload the synthetic graph it runs on
+	 * @return the JSON object holding the result
+	 */
+	private String measure(Case c, Workload workload) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		long iterationNanos = millis * 1000000L;
+		long totalOps = 0;
+		long totalNanos = 0;
+		long totalBytes = 0;
+		long gcCount = 0;
+		long gcMillis = 0;
+		for(int iteration = 0; iteration < warmup + iterations; iteration++) {
+			boolean measured = iteration >= warmup;
+			long[] gcBefore = gcTotals();
+			long ops = 0;
+			long nanos = 0;
+			long bytes = 0;
+			while(nanos < iterationNanos) {
+				c.prepare();
+				long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+				long start = System.nanoTime();
+				ops += c.invoke();
+				nanos += System.nanoTime() - start;
+				bytes += threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+			}
+			long[] gcAfter = gcTotals();
+			if(measured) {
+				totalOps += ops;
+				totalNanos += nanos;
+				totalBytes += bytes;
+				gcCount += gcAfter[0] - gcBefore[0];
+				gcMillis += gcAfter[1] - gcBefore[1];
+			}
+		}
+		double opsPerSecond = totalOps / (totalNanos / 1e9);
+		return String.format(Locale.ROOT,
+				"{\"benchmark\": \"%s\", \"vertices\": %d, \"degree\": %d, \"iterations\": %d, "
+				+ "\"opsPerSecond\": %.3f, \"averageLatencyNanos\": %.1f, \"allocatedBytesPerOp\": %.1f, "
+				+ "\"allocationRateMBPerSecond\": %.3f, \"gcCount\": %d, \"gcMillis\": %d}",
+				c.name, workload.n, workload.degree, iterations, opsPerSecond, (double) totalNanos / totalOps,
+				(double) totalBytes / totalOps, totalBytes / (totalNanos / 1e9) / (1 << 20), gcCount, gcMillis);
+	}
+	/**
+	 * Returns the total collection count and time of every garbage collector
+	 * @return the count and the time in milliseconds
+	 */
+	private static long[] gcTotals() {
+		long[] totals = new long[2];
+		for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			totals[0] += Math.max(0, gc.getCollectionCount());
+			totals[1] += Math.max(0, gc.getCollectionTime());
+		}
+		return totals;
+	}
+	/**
+	 * Returns the benchmarks of the Graph operations on the specified workload
+	 * @param w the workload
+	 * @return the benchmarks
+	 */
+	private static List<Case> cases(Workload w) {
+		List<Case> cases = new ArrayList<Case>();
+		cases.add(new Case("addEdge") {
+			long invoke() {
+				Graph graph = new Graph();
+				for(int i = 0; i < w.starts.length; i++) {
+					graph.addEdge(w.labels[w.starts[i]], w.labels[w.ends[i]], w.weights[i]);
+				}
+				return w.starts.length;
+			}
+		});
+		cases.add(new Case("addEdgesFromFile") {
+			void prepare() {
+				w.file();
+			}
+			long invoke() {
+				new Graph().addEdgesFromFile(w.file().toString());
+				return w.starts.length;
+			}
+		});
+		cases.add(new Case("depthFirstTraversal") {
+			long invoke() {
+				sink += w.graph().depthFirstTraversal(w.labels[0]).size();
+				return 1;
+			}
+		});
+		cases.add(new Case("breadthFirstTraversal") {
+			long invoke() {
+				sink += w.graph().breadthFirstTraversal(w.labels[0]).size();
+				return 1;
+			}
+		});
+		cases.add(new Case("minimumSpanningTree") {
+			void prepare() {
+				//Add and remove an edge so the call pays for the snapshot it rebuilds after any real change
+				Graph graph = w.graph();
+				graph.addEdgeAllowDuplicates(w.labels[0], w.labels[1], 1);
+				graph.removeEdge(graph.getEdges().get(graph.getEdges().size() - 1));
+			}
+			long invoke() {
+				sink += w.graph().minimumSpanningTree().size();
+				return 1;
+			}
+		});
+		cases.add(new Case("removeEdge") {
+			private Graph graph;
+			private Edge[] order;
+			void prepare() {
+				graph = w.build();
+				order = graph.getEdges().toArray(new Edge[0]);
+				Random random = new Random(SEED);
+				for(int i = order.length - 1; i > 0; i--) {
+					int j = random.nextInt(i + 1);
+					Edge swap = order[i];
+					order[i] = order[j];
+					order[j] = swap;
+				}
+			}
+			long invoke() {
+				for(Edge e : order) {
+					graph.removeEdge(e);
+				}
+				return order.length;
+			}
+		});
+		return cases;
+	}
+	/**
+	 * Parses a comma separated list of ints
+	 * @param value the list
+	 * @return the ints
+	 */
+	private static int[] parseInts(String value) {
+		String[] parts = value.split(",");
+		int[] ints = new int[parts.length];
+		for(int i = 0; i < parts.length; i++) {
+			ints[i] = Integer.parseInt(parts[i].trim());
+		}
+		return ints;
+	}
+	/**
+	 * One benchmarked operation
+	 */
+	private abstract static class Case {
+		/**
+		 * The name of the benchmark
+		 */
+		private final String name;
+		/**
+		 * Constructor that names the benchmark
+		 * @param name the name
+		 */
+		Case(String name) {
+			this.name = name;
+		}
+		/**
+		 * Sets up the next invocation, this is not timed
+		 */
+		void prepare() {
+		}
+		/**
+		 * Runs the operation once
+		 * @return the number of operations performed
+		 */
+		abstract long invoke();
+	}
+	/**
+	 * A seeded random graph with a given number of vertices and average degree, and the lazily built graph and edge
+	 * file the benchmarks share
+	 */
+	private static class Workload {
+		/**
+		 * The number of vertices
+		 */
+		private final int n;
+		/**
+		 * The average degree
+		 */
+		private final int degree;
+		/**
+		 * The vertex labels
+		 */
+		private final String[] labels;
+		/**
+		 * The start vertex of each edge
+		 */
+		private final int[] starts;
+		/**
+		 * The end vertex of each edge
+		 */
+		private final int[] ends;
+		/**
+		 * The weight of each edge
+		 */
+		private final int[] weights;
+		/**
+		 * The shared graph, built on first use
+		 */
+		private Graph graph;
+		/**
+		 * The shared edge list file, written on first use
+		 */
+		private Path file;
+		/**
+		 * Constructor that generates the edges, a random spanning tree keeps the graph connected and the rest of the
+		 * edges join uniformly random pairs
+		 * @param n the number of vertices
+		 * @param degree the average degree
+		 */
+		Workload(int n, int degree) {
+			this.n = n;
+			this.degree = degree;
+			int m = Math.max(n - 1, (int) ((long) n * degree / 2));
+			Random random = new Random(SEED ^ ((long) n << 20) ^ degree);
+			labels = new String[n];
+			for(int v = 0; v < n; v++) {
+				labels[v] = "v" + v;
+			}
+			starts = new int[m];
+			ends = new int[m];
+			weights = new int[m];
+			for(int i = 0; i < m; i++) {
+				if(i < n - 1) {
+					starts[i] = i + 1;
+					ends[i] = random.nextInt(i + 1);
+				} else {
+					starts[i] = random.nextInt(n);
+					ends[i] = random.nextInt(n);
+				}
+				weights[i] = 1 + random.nextInt(1000);
+			}
+		}
+		/**
+		 * Builds a new graph from the edges
+		 * @return the graph
+		 */
+		Graph build() {
+			Graph built = new Graph();
+			for(int i = 0; i < starts.length; i++) {
+				built.addEdge(labels[starts[i]], labels[ends[i]], weights[i]);
+			}
+			return built;
+		}
+		/**
+		 * Returns the shared graph
+		 * @return the graph
+		 */
+		Graph graph() {
+			if(graph == null) graph = build();
+			return graph;
+		}
+		/**
+		 * Returns the shared edge list file
+		 * @return the file
+		 */
+		Path file() {
+			if(file == null) {
+				try {
+					file = Files.createTempFile("graph-bench", ".txt");
+					try(BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+						for(int i = 0; i < starts.length; i++) {
+							writer.write(labels[starts[i]] + " " + labels[ends[i]] + " " + weights[i] + "\n");
+						}
+					}
+				} catch(IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			return file;
+		}
+		/**
+		 * Deletes the edge list file
+		 * @throws IOException if the file cannot be deleted
+		 */
+		void close() throws IOException {
+			if(file != null) Files.deleteIfExists(file);
+		}
+	}
+}
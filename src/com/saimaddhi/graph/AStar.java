@@ -0,0 +1,56 @@
+package com.saimaddhi.graph;
+import com.saimaddhi.graph.primitive.IndexedMinHeap;
+/**
+ * The A* point to point search over a CSR snapshot. It is Dijkstra's algorithm with every vertex keyed by its distance
+ * plus a heuristic estimate of its remaining distance to the target, so the search heads towards the target. A vertex
+ * whose distance drops after it was settled is searched again, so any admissible heuristic gives shortest paths
+ * @author saimaddhi
+ *
+ */
+public class AStar {
+	/**
+	 * The reusable search state of each thread
+	 */
+	private static final ThreadLocal<Dijkstra.Search> SEARCHES = ThreadLocal.withInitial(Dijkstra.Search::new);
+	/**
+	 * This class only has static methods
+	 */
+	private AStar() {
+	}
+	/**
+	 * Returns the shortest path from the source to the target
+	 * @param graph the snapshot
+	 * @param source the dense id of the source
+	 * @param target the dense id of the target
+	 * @param heuristic an admissible estimate of the distance to the target
+	 * @return the path
+	 * @throws IllegalArgumentException if the snapshot has negative weights
+	 */
+	public static PathResult shortestPath(CsrGraph graph, int source, int target, Heuristic heuristic) {
+		Dijkstra.checkWeights(graph);
+		int[] offsets = graph.getOffsets();
+		int[] targets = graph.getTargets();
+		int[] weights = graph.getWeights();
+		Dijkstra.Search search = SEARCHES.get();
+		search.begin(graph.vertexCount());
+		IndexedMinHeap heap = search.heap;
+		search.reach(source, 0, -1);
+		heap.insert(source, heuristic.estimate(source, target));
+		int settled = 0;
+		while(!heap.isEmpty()) {
+			int v = heap.poll();
+			long distance = search.distances[v];
+			settled++;
+			if(v == target) return new PathResult(graph, search.path(target), distance, settled);
+			for(int i = offsets[v]; i < offsets[v + 1]; i++) {
+				int w = targets[i];
+				long candidate = distance + weights[i];
+				if(!search.reached(w) || candidate < search.distances[w]) {
+					search.reach(w, candidate, v);
+					heap.offer(w, candidate + heuristic.estimate(w, target));
+				}
+			}
+		}
+		return new PathResult(graph, new int[0], ShortestPaths.UNREACHABLE, settled);
+	}
+}
@@ -0,0 +1,87 @@
+package com.saimaddhi.graph;
+import com.saimaddhi.graph.primitive.IndexedMinHeap;
+/**
+ * Bidirectional Dijkstra over a CSR snapshot. A forward search from the source and a backward search from the target
+ * take turns, the one with the smaller next key going first, and every edge that joins the two searches offers a
+ * candidate path. The searches stop once the two next keys add up to at least the best candidate, since no path
+ * through an unsettled vertex can be shorter
+ * @author saimaddhi
+ *
+ */
+public class BidirectionalDijkstra {
+	/**
+	 * The reusable forward search state of each thread
+	 */
+	private static final ThreadLocal<Dijkstra.Search> FORWARD = ThreadLocal.withInitial(Dijkstra.Search::new);
+	/**
+	 * The reusable backward search state of each thread
+	 */
+	private static final ThreadLocal<Dijkstra.Search> BACKWARD = ThreadLocal.withInitial(Dijkstra.Search::new);
+	/**
+	 * This class only has static methods
+	 */
+	private BidirectionalDijkstra() {
+	}
+	/**
+	 * Returns the shortest path from the source to the target
+	 * @param graph the snapshot
+	 * @param source the dense id of the source
+	 * @param target the dense id of the target
+	 * @return the path
+	 * @throws IllegalArgumentException if the snapshot has negative weights
+	 */
+	public static PathResult shortestPath(CsrGraph graph, int source, int target) {
+		Dijkstra.checkWeights(graph);
+		if(source == target) return new PathResult(graph, new int[] {source}, 0, 1);
+		int[] offsets = graph.getOffsets();
+		int[] targets = graph.getTargets();
+		int[] weights = graph.getWeights();
+		Dijkstra.Search forward = FORWARD.get();
+		Dijkstra.Search backward = BACKWARD.get();
+		forward.begin(graph.vertexCount());
+		backward.begin(graph.vertexCount());
+		forward.reach(source, 0, -1);
+		forward.heap.insert(source, 0);
+		backward.reach(target, 0, -1);
+		backward.heap.insert(target, 0);
+		
+		long best = ShortestPaths.UNREACHABLE;
+		int meetForward = -1;
+		int meetBackward = -1;
+		int settled = 0;
+		while(!forward.heap.isEmpty() && !backward.heap.isEmpty()) {
+			if(forward.heap.peekKey() + backward.heap.peekKey() >= best) break;
+			boolean isForward = forward.heap.peekKey() <= backward.heap.peekKey();
+			Dijkstra.Search search = isForward ? forward : backward;
+			Dijkstra.Search other = isForward ? backward : forward;
+			IndexedMinHeap heap = search.heap;
+			long distance = heap.peekKey();
+			int v = heap.poll();
+			settled++;
+			for(int i = offsets[v]; i < offsets[v + 1]; i++) {
+				int w = targets[i];
+				long candidate = distance + weights[i];
+				if(!search.reached(w) || candidate < search.distances[w]) {
+					search.reach(w, candidate, v);
+					heap.offer(w, candidate);
+				}
+				if(other.reached(w) && candidate + other.distances[w] < best) {
+					best = candidate + other.distances[w];
+					meetForward = isForward ? v : w;
+					meetBackward = isForward ? w : v;
+				}
+			}
+		}
+		if(best == ShortestPaths.UNREACHABLE) return new PathResult(graph, new int[0], best, settled);
+		
+		//Join the forward path to the meeting edge with the backward path from it
+		int[] head = forward.path(meetForward);
+		int[] tail = backward.path(meetBackward);
+		int[] ids = new int[head.length + tail.length];
+		System.arraycopy(head, 0, ids, 0, head.length);
+		for(int i = 0; i < tail.length; i++) {
+			ids[head.length + i] = tail[tail.length - 1 - i];
+		}
+		return new PathResult(graph, ids, best, settled);
+	}
+}
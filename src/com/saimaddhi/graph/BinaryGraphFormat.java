@@ -0,0 +1,340 @@
+package com.saimaddhi.graph;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+/**
+ * Reads and writes graphs in a compact versioned binary format. The file holds, in order:
+ * <ul>
+ * <li>the magic number "GRPH" and the format version</li>
+ * <li>the label dictionary, a varint count and then a varint length and UTF-8 bytes per label</li>
+ * <li>the edges in the order of the graph's edge list, a varint edge count and then per edge the start vertex as a
+ * zigzag varint delta from the previous edge's start and the end vertex as a zigzag varint delta from its start</li>
+ * <li>the weights as zigzag varints in the same order</li>
+ * <li>the CRC32 of everything before it</li>
+ * </ul>
+ * @author saimaddhi
+ *
+ */
+public class BinaryGraphFormat {
+	/**
+	 * The magic number at the start of every file, "GRPH" in ASCII
+	 */
+	private static final int MAGIC = 0x47525048;
+	/**
+	 * The version written by this class
+	 */
+	private static final int VERSION = 2;
+	/**
+	 * The size of the read and write buffers
+	 */
+	private static final int BUFFER_SIZE = 1 << 20;
+	/**
+	 * This class only has static methods
+	 */
+	private BinaryGraphFormat() {
+	}
+	/**
+	 * Writes the specified graph to the file, replacing its contents
+	 * @param graph the graph to write
+	 * @param file the file
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void save(Graph graph, Path file) throws IOException {
+		CsrGraph csr = graph.freeze();
+		int n = csr.vertexCount();
+		int m = csr.edgeCount();
+		int[] starts = csr.getEdgeStarts();
+		int[] ends = csr.getEdgeEnds();
+		int[] weights = csr.getEdgeWeights();
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			Output out = new Output(channel);
+			out.putInt(MAGIC);
+			out.putInt(VERSION);
+			out.putVarint(n);
+			for(int v = 0; v < n; v++) {
+				byte[] label = csr.getLabel(v).getBytes(StandardCharsets.UTF_8);
+				out.putVarint(label.length);
+				out.putBytes(label);
+			}
+			out.putVarint(m);
+			int previous = 0;
+			for(int i = 0; i < m; i++) {
+				out.putVarint(zigzag(starts[i] - previous));
+				out.putVarint(zigzag(ends[i] - starts[i]));
+				previous = starts[i];
+			}
+			for(int i = 0; i < m; i++) {
+				out.putVarint(zigzag(weights[i]));
+			}
+			out.finish();
+		}
+	}
+	/**
+	 * Reads a graph from the specified file
+	 * @param file the file
+	 * @return the graph
+	 * @throws IOException if the file cannot be read, is not in this format or fails its checksum
+	 */
+	public static Graph load(Path file) throws IOException {
+		Graph graph = new Graph();
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			Input in = new Input(channel);
+			if(in.getInt() != MAGIC) throw new IOException(file + " is not a binary graph file");
+			int version = in.getInt();
+			if(version != VERSION) throw new IOException("Unsupported binary graph version " + version);
+		
+			//Every count is checked against the bytes left before it sizes anything, as each item takes at least one
+			int n = in.getVarint();
+			if(n < 0 || n > in.remaining()) throw new IOException("Corrupt binary graph file " + file);
+			ArrayList<String> labels = new ArrayList<String>(n);
+			byte[] label = new byte[64];
+			for(int v = 0; v < n; v++) {
+				int length = in.getVarint();
+				if(length < 0 || length > in.remaining()) throw new IOException("Corrupt binary graph file " + file);
+				if(length > label.length) label = new byte[Math.max(length, label.length * 2)];
+				in.getBytes(label, length);
+				labels.add(new String(label, 0, length, StandardCharsets.UTF_8));
+			}
+		
+			int m = in.getVarint();
+			if(m < 0 || m > in.remaining()) throw new IOException("Corrupt binary graph file " + file);
+			int[] starts = new int[m];
+			int[] ends = new int[m];
+			int[] weights = new int[m];
+			int start = 0;
+			for(int i = 0; i < m; i++) {
+				start += unzigzag(in.getVarint());
+				int end = start + unzigzag(in.getVarint());
+				if(start < 0 || start >= n || end < 0 || end >= n) {
+					throw new IOException("Corrupt binary graph file " + file);
+				}
+				starts[i] = start;
+				ends[i] = end;
+			}
+			for(int i = 0; i < m; i++) {
+				weights[i] = unzigzag(in.getVarint());
+			}
+			in.verify(file);
+			graph.addEdgesAllowDuplicates(new EdgeBatch(labels, starts, ends, weights, m));
+		}
+		return graph;
+	}
+	/**
+	 * Maps a signed int to an unsigned one so small magnitudes of either sign take few varint bytes
+	 * @param value the signed int
+	 * @return the zigzag encoded int
+	 */
+	private static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+	/**
+	 * Reverses {@link #zigzag(int)}
+	 * @param value the zigzag encoded int
+	 * @return the signed int
+	 */
+	private static int unzigzag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+	/**
+	 * A buffered channel writer that keeps a running checksum
+	 */
+	private static class Output {
+		/**
+		 * The channel being written
+		 */
+		private FileChannel channel;
+		/**
+		 * The write buffer
+		 */
+		private ByteBuffer buffer;
+		/**
+		 * The checksum of the bytes written so far
+		 */
+		private CRC32 crc;
+		/**
+		 * Constructor that writes to the specified channel
+		 * @param channel the channel
+		 */
+		private Output(FileChannel channel) {
+			this.channel = channel;
+			this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			this.crc = new CRC32();
+		}
+		/**
+		 * Makes room for the specified number of bytes
+		 * @param bytes the number of bytes
+		 * @throws IOException if the channel cannot be written
+		 */
+		private void ensure(int bytes) throws IOException {
+			if(buffer.remaining() < bytes) flush();
+		}
+		/**
+		 * Writes a four byte int
+		 * @param value the int
+		 * @throws IOException if the channel cannot be written
+		 */
+		private void putInt(int value) throws IOException {
+			ensure(4);
+			buffer.putInt(value);
+		}
+		/**
+		 * Writes an unsigned varint of up to five bytes
+		 * @param value the value
+		 * @throws IOException if the channel cannot be written
+		 */
+		private void putVarint(int value) throws IOException {
+			ensure(5);
+			while((value & ~0x7F) != 0) {
+				buffer.put((byte) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			buffer.put((byte) value);
+		}
+		/**
+		 * Writes the specified bytes
+		 * @param bytes the bytes
+		 * @throws IOException if the channel cannot be written
+		 */
+		private void putBytes(byte[] bytes) throws IOException {
+			int offset = 0;
+			while(offset < bytes.length) {
+				ensure(1);
+				int length = Math.min(buffer.remaining(), bytes.length - offset);
+				buffer.put(bytes, offset, length);
+				offset += length;
+			}
+		}
+		/**
+		 * Adds the buffered bytes to the checksum and writes them
+		 * @throws IOException if the channel cannot be written
+		 */
+		private void flush() throws IOException {
+			crc.update(buffer.array(), 0, buffer.position());
+			buffer.flip();
+			while(buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+		/**
+		 * Writes the checksum and everything still buffered
+		 * @throws IOException if the channel cannot be written
+		 */
+		private void finish() throws IOException {
+			flush();
+			buffer.putInt((int) crc.getValue());
+			buffer.flip();
+			while(buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+	/**
+	 * A buffered channel reader that keeps a running checksum
+	 */
+	private static class Input {
+		/**
+		 * The channel being read
+		 */
+		private FileChannel channel;
+		/**
+		 * The read buffer
+		 */
+		private ByteBuffer buffer;
+		/**
+		 * The checksum of the bytes read before the buffer's current contents
+		 */
+		private CRC32 crc;
+		/**
+		 * Constructor that reads from the specified channel
+		 * @param channel the channel
+		 */
+		private Input(FileChannel channel) {
+			this.channel = channel;
+			this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			this.buffer.flip();
+			this.crc = new CRC32();
+		}
+		/**
+		 * Makes sure the specified number of bytes are buffered, or as many as are left in the channel
+		 * @param bytes the number of bytes
+		 * @return true if that many bytes are buffered
+		 * @throws IOException if the channel cannot be read
+		 */
+		private boolean fill(int bytes) throws IOException {
+			if(buffer.remaining() >= bytes) return true;
+			crc.update(buffer.array(), 0, buffer.position());
+			buffer.compact();
+			while(buffer.position() < bytes && channel.read(buffer) >= 0) {
+			}
+			buffer.flip();
+			return buffer.remaining() >= bytes;
+		}
+		/**
+		 * Returns the number of bytes left to read
+		 * @return the number of bytes
+		 * @throws IOException if the channel cannot be read
+		 */
+		private long remaining() throws IOException {
+			return channel.size() - channel.position() + buffer.remaining();
+		}
+		/**
+		 * Reads a four byte int
+		 * @return the int
+		 * @throws IOException if the channel cannot be read or ends early
+		 */
+		private int getInt() throws IOException {
+			if(!fill(4)) throw new EOFException();
+			return buffer.getInt();
+		}
+		/**
+		 * Reads an unsigned varint of up to five bytes
+		 * @return the value
+		 * @throws IOException if the channel cannot be read or ends early
+		 */
+		private int getVarint() throws IOException {
+			if(!fill(5) && !buffer.hasRemaining()) throw new EOFException();
+			int value = 0;
+			for(int shift = 0; shift < 35; shift += 7) {
+				if(!buffer.hasRemaining()) throw new EOFException();
+				byte b = buffer.get();
+				value |= (b & 0x7F) << shift;
+				if(b >= 0) return value;
+			}
+			throw new IOException("Malformed varint");
+		}
+		/**
+		 * Reads the specified number of bytes
+		 * @param bytes the array to read into
+		 * @param length the number of bytes
+		 * @throws IOException if the channel cannot be read or ends early
+		 */
+		private void getBytes(byte[] bytes, int length) throws IOException {
+			int offset = 0;
+			while(offset < length) {
+				if(!fill(1)) throw new EOFException();
+				int count = Math.min(buffer.remaining(), length - offset);
+				buffer.get(bytes, offset, count);
+				offset += count;
+			}
+		}
+		/**
+		 * Checks the trailing checksum against the bytes read
+		 * @param file the file being read, for the error message
+		 * @throws IOException if the checksums do not match
+		 */
+		private void verify(Path file) throws IOException {
+			if(!fill(4)) throw new EOFException();
+			crc.update(buffer.array(), 0, buffer.position());
+			int expected = buffer.getInt();
+			if(expected != (int) crc.getValue()) throw new IOException("Checksum mismatch in " + file);
+		}
+	}
+}
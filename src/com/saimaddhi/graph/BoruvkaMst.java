@@ -0,0 +1,114 @@
+package com.saimaddhi.graph;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+import com.saimaddhi.graph.primitive.IntList;
+/**
+ * A parallel implementation of Boruvka's minimum spanning forest algorithm over a CSR snapshot. Each round the common
+ * fork join pool finds the cheapest edge leaving every component, those edges are added and their components merged
+ * by pointer jumping, and the edges inside a component are dropped. Only the components that still have an outgoing
+ * edge are visited, and every pass over the vertices runs in parallel. Edges are compared by weight and then by edge
+ * id, which makes the cheapest edges unique and the result the same on every run
+ * @author saimaddhi
+ *
+ */
+public class BoruvkaMst {
+	/**
+	 * The number of edges handled by one task
+	 */
+	private static final int CHUNK = 1 << 14;
+	/**
+	 * The key of a component that has no outgoing edge
+	 */
+	private static final long NONE = Long.MAX_VALUE;
+	/**
+	 * This class only has static methods
+	 */
+	private BoruvkaMst() {
+	}
+	/**
+	 * Returns the edges of the minimum spanning forest of the snapshot
+	 * @param graph the snapshot
+	 * @return the list of edges part of the mst, in order of weight
+	 */
+	public static ArrayList<Edge> minimumSpanningTree(CsrGraph graph) {
+		int n = graph.vertexCount();
+		int m = graph.edgeCount();
+		int[] starts = graph.getEdgeStarts();
+		int[] ends = graph.getEdgeEnds();
+		int[] weights = graph.getEdgeWeights();
+		int[] label = new int[n];
+		int[] parent = new int[n];
+		AtomicLongArray cheapest = new AtomicLongArray(n);
+		IntStream.range(0, n).parallel().forEach(v -> {
+			label[v] = v;
+			parent[v] = v;
+			cheapest.set(v, NONE);
+		});
+		IntList tree = new IntList();
+		int[] roots = IntStream.range(0, n).toArray();
+		int[] active = IntStream.range(0, m).parallel().filter(e -> starts[e] != ends[e]).toArray();
+		
+		while(active.length > 0) {
+			//Find the cheapest edge leaving each component
+			int[] edges = active;
+			IntStream.range(0, (edges.length + CHUNK - 1) / CHUNK).parallel().forEach(c -> {
+				for(int i = c * CHUNK; i < Math.min(edges.length, (c + 1) * CHUNK); i++) {
+					int e = edges[i];
+					int a = label[starts[e]];
+					int b = label[ends[e]];
+					if(a == b) continue;
+					long key = ((long) weights[e] << 32) | e;
+					lower(cheapest, a, key);
+					lower(cheapest, b, key);
+				}
+			});
+			
+			//Hook every component that found an edge to the component across it, the keys are unique so the only
+			//cycles are pairs that picked the same edge, and the lower of the two becomes the root
+			int[] hooked = IntStream.of(roots).parallel().filter(r -> cheapest.get(r) != NONE).toArray();
+			if(hooked.length == 0) break;
+			IntStream.of(hooked).parallel().forEach(r -> {
+				int e = (int) cheapest.get(r);
+				parent[r] = (label[starts[e]] == r) ? label[ends[e]] : label[starts[e]];
+			});
+			IntStream.of(hooked).parallel().forEach(r -> {
+				if(r < parent[r] && parent[parent[r]] == r) parent[r] = r;
+			});
+			int[] added = IntStream.of(hooked).parallel().filter(r -> parent[r] != r)
+					.map(r -> (int) cheapest.get(r)).toArray();
+			for(int e : added) {
+				tree.add(e);
+			}
+			IntStream.of(hooked).parallel().forEach(r -> cheapest.set(r, NONE));
+			
+			//Point every hooked component at its root by pointer jumping, then relabel the vertices
+			boolean jumped = true;
+			while(jumped) {
+				jumped = IntStream.of(hooked).parallel().map(r -> {
+					int up = parent[parent[r]];
+					if(up == parent[r]) return 0;
+					parent[r] = up;
+					return 1;
+				}).sum() > 0;
+			}
+			IntStream.range(0, n).parallel().forEach(v -> label[v] = parent[label[v]]);
+			roots = IntStream.of(hooked).parallel().filter(r -> parent[r] == r).toArray();
+			active = IntStream.of(edges).parallel().filter(e -> label[starts[e]] != label[ends[e]]).toArray();
+		}
+		return graph.edgesByWeight(tree.toArray());
+	}
+	/**
+	 * Lowers the key stored at the specified index to the specified key if it is smaller
+	 * @param keys the keys
+	 * @param index the index
+	 * @param key the candidate key
+	 */
+	private static void lower(AtomicLongArray keys, int index, long key) {
+		long current = keys.get(index);
+		while(key < current && !keys.compareAndSet(index, current, key)) {
+			current = keys.get(index);
+		}
+	}
+}
@@ -0,0 +1,350 @@
+package com.saimaddhi.graph;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+/**
+ * An undirected graph that any number of threads may read and change at once. Vertices live in a concurrent hash map,
+ * the edges are indexed by the unordered pair of their vertex ids in another, and the neighbor lists are guarded by a
+ * fixed array of read write locks picked by vertex id, so writers touching different vertices rarely wait for each
+ * other. Unlike {@link Graph}, a vertex stays in the graph after losing its last edge
+ * @author saimaddhi
+ *
+ */
+public class ConcurrentGraph {
+	/**
+	 * The default number of lock stripes
+	 */
+	private static final int DEFAULT_STRIPES = 256;
+	/**
+	 * The vertices keyed by label
+	 */
+	private ConcurrentHashMap<String, Vertex> vertices;
+	/**
+	 * The edges between every joined pair of vertices, keyed by the unordered pair of their vertex ids. A list is only
+	 * changed while holding the write locks of both its vertices
+	 */
+	private ConcurrentHashMap<Long, ArrayList<Edge>> edgeIndex;
+	/**
+	 * The locks guarding the neighbor lists, vertex id v is guarded by stripe v & (stripes.length - 1)
+	 */
+	private ReentrantReadWriteLock[] stripes;
+	/**
+	 * The id that will be given to the next added vertex
+	 */
+	private AtomicInteger nextId;
+	/**
+	 * The number of edges
+	 */
+	private LongAdder edgeCount;
+	/**
+	 * The default constructor for the concurrent graph
+	 */
+	public ConcurrentGraph() {
+		this(DEFAULT_STRIPES);
+	}
+	/**
+	 * Constructor that uses at least the specified number of lock stripes, rounded up to a power of two
+	 * @param stripes the number of stripes, more stripes let more writers work at once
+	 */
+	public ConcurrentGraph(int stripes) {
+		int count = Integer.highestOneBit(Math.max(stripes, 1) * 2 - 1);
+		this.vertices = new ConcurrentHashMap<String, Vertex>();
+		this.edgeIndex = new ConcurrentHashMap<Long, ArrayList<Edge>>();
+		this.stripes = new ReentrantReadWriteLock[count];
+		for(int i = 0; i < count; i++) {
+			this.stripes[i] = new ReentrantReadWriteLock();
+		}
+		this.nextId = new AtomicInteger();
+		this.edgeCount = new LongAdder();
+	}
+	/**
+	 * Adds a vertex with the specified label, if the label is already taken the existing vertex is returned instead
+	 * @param label the label
+	 * @return the vertex with that label
+	 */
+	public Vertex addVertex(String label) {
+		Vertex vertex = vertices.get(label);
+		if(vertex != null) return vertex;
+		return vertices.computeIfAbsent(label, l -> {
+			Vertex added = new Vertex(l);
+			added.setId(nextId.getAndIncrement());
+			return added;
+		});
+	}
+	/**
+	 * Adds an edge between the two vertices unless they are already joined, adding the vertices if needed
+	 * @param startLabel the start vertex name
+	 * @param endLabel the end vertex name
+	 * @param weight the weight of the edge
+	 * @return true if the edge was added
+	 */
+	public boolean addEdge(String startLabel, String endLabel, int weight) {
+		return addEdge(addVertex(startLabel), addVertex(endLabel), weight, false) != null;
+	}
+	/**
+	 * Adds an edge between the two vertices even if they are already joined, adding the vertices if needed
+	 * @param startLabel the start vertex name
+	 * @param endLabel the end vertex name
+	 * @param weight the weight of the edge
+	 * @return the new edge
+	 */
+	public Edge addEdgeAllowDuplicates(String startLabel, String endLabel, int weight) {
+		return addEdge(addVertex(startLabel), addVertex(endLabel), weight, true);
+	}
+	/**
+	 * Links the two vertices and indexes the new edge while holding both their write locks
+	 * @param start the start vertex
+	 * @param end the end vertex
+	 * @param weight the weight of the edge
+	 * @param duplicates true to add the edge even if the vertices are already joined
+	 * @return the new edge, or null if the vertices were already joined and duplicates are not allowed
+	 */
+	private Edge addEdge(Vertex start, Vertex end, int weight, boolean duplicates) {
+		Long key = key(start, end);
+		lockBoth(start, end);
+		try {
+			ArrayList<Edge> joined = edgeIndex.get(key);
+			if(joined == null) {
+				joined = new ArrayList<Edge>(1);
+				edgeIndex.put(key, joined);
+			} else if(!duplicates) {
+				return null;
+			}
+			Edge edge = new Edge(start, end, weight);
+			joined.add(edge);
+			start.addNeighbor(end);
+			end.addNeighbor(start);
+			edgeCount.increment();
+			return edge;
+		} finally {
+			unlockBoth(start, end);
+		}
+	}
+	/**
+	 * Removes the specified edge, if it is not one of this graph's own edges then an edge between the same two vertices
+	 * is removed. The vertices stay in the graph
+	 * @param e the edge to be removed
+	 * @return true if an edge was removed
+	 */
+	public boolean removeEdge(Edge e) {
+		Vertex start = vertices.get(e.getStart().getLabel());
+		Vertex end = vertices.get(e.getEnd().getLabel());
+		if(start == null || end == null) return false;
+		Long key = key(start, end);
+		lockBoth(start, end);
+		try {
+			ArrayList<Edge> joined = edgeIndex.get(key);
+			if(joined == null) return false;
+			int index = 0;
+			for(int i = 0; i < joined.size(); i++) {
+				if(joined.get(i) == e) index = i;
+			}
+			joined.remove(index);
+			if(joined.isEmpty()) edgeIndex.remove(key);
+			start.removeNeighbor(end);
+			end.removeNeighbor(start);
+			edgeCount.decrement();
+			return true;
+		} finally {
+			unlockBoth(start, end);
+		}
+	}
+	/**
+	 * Removes an edge between the two vertices
+	 * @param startLabel the start vertex name
+	 * @param endLabel the end vertex name
+	 * @return true if an edge was removed
+	 */
+	public boolean removeEdge(String startLabel, String endLabel) {
+		Edge edge = getEdge(startLabel, endLabel);
+		return edge != null && removeEdge(edge);
+	}
+	/**
+	 * Returns an edge between the two vertices
+	 * @param startLabel the start vertex name
+	 * @param endLabel the end vertex name
+	 * @return the first edge added between them that is still in the graph, or null if they are not joined
+	 */
+	public Edge getEdge(String startLabel, String endLabel) {
+		Vertex start = vertices.get(startLabel);
+		Vertex end = vertices.get(endLabel);
+		if(start == null || end == null) return null;
+		
+		//Writers of the pair hold both write locks, so either read lock keeps the list still
+		ReentrantReadWriteLock.ReadLock lock = stripeOf(start).readLock();
+		lock.lock();
+		try {
+			ArrayList<Edge> joined = edgeIndex.get(key(start, end));
+			return (joined == null) ? null : joined.get(0);
+		} finally {
+			lock.unlock();
+		}
+	}
+	/**
+	 * Returns the vertex with the specified label
+	 * @param label the label
+	 * @return the vertex, or null if there is no such vertex
+	 */
+	public Vertex getVertex(String label) {
+		return vertices.get(label);
+	}
+	/**
+	 * Returns a copy of the neighbors of the vertex with the specified label
+	 * @param label the label
+	 * @return the neighbors, empty if there is no such vertex
+	 */
+	public ArrayList<Vertex> getNeighbors(String label) {
+		Vertex vertex = vertices.get(label);
+		return (vertex == null) ? new ArrayList<Vertex>(0) : neighbors(vertex);
+	}
+	/**
+	 * Getter for the number of vertices
+	 * @return the number of vertices
+	 */
+	public int vertexCount() {
+		return vertices.size();
+	}
+	/**
+	 * Getter for the number of edges
+	 * @return the number of edges
+	 */
+	public long edgeCount() {
+		return edgeCount.sum();
+	}
+	/**
+	 * Returns the depth first traversal starting from the specified vertex. Each neighbor list is read under its lock,
+	 * so the traversal may run alongside changes and sees every vertex's neighbors as they were when it got there
+	 * @param label the starting label
+	 * @return the list of the vertices part of the traversal
+	 */
+	public ArrayList<Vertex> depthFirstTraversal(String label) {
+		ArrayList<Vertex> order = new ArrayList<Vertex>(0);
+		Vertex vertex = vertices.get(label);
+		if(vertex == null) return order;
+		BitSet visited = new BitSet();
+		ArrayDeque<Vertex> stack = new ArrayDeque<Vertex>();
+		stack.push(vertex);
+		visited.set(vertex.getId());
+		while(!stack.isEmpty()) {
+			Vertex old = stack.pop();
+			order.add(old);
+			for(Vertex neighbor : neighbors(old)) {
+				if(!visited.get(neighbor.getId())) {
+					visited.set(neighbor.getId());
+					stack.push(neighbor);
+				}
+			}
+		}
+		return order;
+	}
+	/**
+	 * Returns the breadth first traversal starting from the specified vertex. Each neighbor list is read under its
+	 * lock, so the traversal may run alongside changes and sees every vertex's neighbors as they were when it got there
+	 * @param label the starting label
+	 * @return the list of the vertices part of the traversal
+	 */
+	public ArrayList<Vertex> breadthFirstTraversal(String label) {
+		ArrayList<Vertex> order = new ArrayList<Vertex>(0);
+		Vertex vertex = vertices.get(label);
+		if(vertex == null) return order;
+		BitSet visited = new BitSet();
+		ArrayDeque<Vertex> queue = new ArrayDeque<Vertex>();
+		queue.addLast(vertex);
+		visited.set(vertex.getId());
+		while(!queue.isEmpty()) {
+			Vertex old = queue.pollFirst();
+			order.add(old);
+			for(Vertex neighbor : neighbors(old)) {
+				if(!visited.get(neighbor.getId())) {
+					visited.set(neighbor.getId());
+					queue.addLast(neighbor);
+				}
+			}
+		}
+		return order;
+	}
+	/**
+	 * Returns a compressed sparse row snapshot of the graph for read heavy work. Every read lock is held while the edges
+	 * are copied, so the snapshot holds the edges of one moment, along with every vertex added up to the end of the copy
+	 * @return the snapshot
+	 */
+	public CsrGraph freeze() {
+		ArrayList<Edge> edges = new ArrayList<Edge>((int) Math.min(Integer.MAX_VALUE - 8, edgeCount.sum()));
+		for(ReentrantReadWriteLock stripe : stripes) {
+			stripe.readLock().lock();
+		}
+		try {
+			for(ArrayList<Edge> joined : edgeIndex.values()) {
+				edges.addAll(joined);
+			}
+		} finally {
+			for(int i = stripes.length - 1; i >= 0; i--) {
+				stripes[i].readLock().unlock();
+			}
+		}
+		
+		//Every vertex of a copied edge was added before the edge, so reading the vertices afterwards finds them all
+		Collection<Vertex> copied = new ArrayList<Vertex>(vertices.values());
+		return new CsrGraph(copied, edges);
+	}
+	/**
+	 * Copies the neighbors of the vertex under its read lock
+	 * @param vertex the vertex
+	 * @return the neighbors
+	 */
+	private ArrayList<Vertex> neighbors(Vertex vertex) {
+		ReentrantReadWriteLock.ReadLock lock = stripeOf(vertex).readLock();
+		lock.lock();
+		try {
+			return new ArrayList<Vertex>(vertex.getNeighbors());
+		} finally {
+			lock.unlock();
+		}
+	}
+	/**
+	 * Returns the lock stripe guarding the specified vertex
+	 * @param vertex the vertex
+	 * @return the stripe
+	 */
+	private ReentrantReadWriteLock stripeOf(Vertex vertex) {
+		return stripes[vertex.getId() & (stripes.length - 1)];
+	}
+	/**
+	 * Takes the write locks of both vertices, the lower stripe first so that two writers never wait on each other
+	 * @param a one vertex
+	 * @param b the other vertex
+	 */
+	private void lockBoth(Vertex a, Vertex b) {
+		int first = a.getId() & (stripes.length - 1);
+		int second = b.getId() & (stripes.length - 1);
+		stripes[Math.min(first, second)].writeLock().lock();
+		if(first != second) stripes[Math.max(first, second)].writeLock().lock();
+	}
+	/**
+	 * Releases the write locks taken by lockBoth
+	 * @param a one vertex
+	 * @param b the other vertex
+	 */
+	private void unlockBoth(Vertex a, Vertex b) {
+		int first = a.getId() & (stripes.length - 1);
+		int second = b.getId() & (stripes.length - 1);
+		if(first != second) stripes[Math.max(first, second)].writeLock().unlock();
+		stripes[Math.min(first, second)].writeLock().unlock();
+	}
+	/**
+	 * Returns the edge index key of the unordered pair of vertices
+	 * @param a one vertex
+	 * @param b the other vertex
+	 * @return the key
+	 */
+	private static long key(Vertex a, Vertex b) {
+		long low = Math.min(a.getId(), b.getId());
+		long high = Math.max(a.getId(), b.getId());
+		return (high << 32) | low;
+	}
+}
@@ -0,0 +1,85 @@
+package com.saimaddhi.graph;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+/**
+ * A lock free disjoint-set forest over the integer ids 0 to n-1 that any number of threads may use at once. Roots are
+ * hooked under the smaller of the two roots with compare and set, which keeps the forest acyclic without ranks, and
+ * finds halve the path they walk
+ * @author saimaddhi
+ *
+ */
+public class ConcurrentUnionFind {
+	/**
+	 * The parent of each id, a root is its own parent and every parent is at most its child
+	 */
+	private AtomicIntegerArray parent;
+	/**
+	 * Constructor that puts each of the ids 0 to n-1 into its own set
+	 * @param n the number of ids
+	 */
+	public ConcurrentUnionFind(int n) {
+		parent = new AtomicIntegerArray(n);
+		for(int i = 0; i < n; i++) {
+			parent.lazySet(i, i);
+		}
+	}
+	/**
+	 * Returns the root of the set that contains the specified id, halving the path along the way. The root may be
+	 * hooked under another one by a concurrent union as soon as it is returned
+	 * @param id the id
+	 * @return the root of the set
+	 */
+	public int find(int id) {
+		int p = parent.get(id);
+		while(p != id) {
+			int grandparent = parent.get(p);
+			if(grandparent != p) parent.compareAndSet(id, p, grandparent);
+			id = p;
+			p = grandparent;
+		}
+		return id;
+	}
+	/**
+	 * Merges the sets that contain the two ids
+	 * @param a the first id
+	 * @param b the second id
+	 * @return true if this call merged two sets, false if they were already the same set
+	 */
+	public boolean union(int a, int b) {
+		while(true) {
+			int rootA = find(a);
+			int rootB = find(b);
+			if(rootA == rootB) return false;
+			if(rootA < rootB) {
+				int swap = rootA;
+				rootA = rootB;
+				rootB = swap;
+			}
+			//Fails if another thread hooked rootA meanwhile, then both roots are looked up again
+			if(parent.compareAndSet(rootA, rootA, rootB)) return true;
+			a = rootA;
+			b = rootB;
+		}
+	}
+	/**
+	 * Returns true if both ids are in the same set, which is exact once no unions are running
+	 * @param a the first id
+	 * @param b the second id
+	 * @return true if the ids are connected
+	 */
+	public boolean connected(int a, int b) {
+		while(true) {
+			int rootA = find(a);
+			int rootB = find(b);
+			if(rootA == rootB) return true;
+			//A root that is still a root proves the sets were apart at that moment
+			if(parent.get(rootA) == rootA) return false;
+		}
+	}
+	/**
+	 * Getter for the number of ids
+	 * @return the number of ids
+	 */
+	public int size() {
+		return parent.length();
+	}
+}
@@ -0,0 +1,161 @@
+package com.saimaddhi.graph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+/**
+ * The connected components of a CSR snapshot, found on the common fork join pool with the Afforest algorithm
+ * (Sutton, Ben-Nun and Barak). Every vertex is first united with its first few neighbors, a sample of vertices then
+ * names the largest component, and only the vertices outside it go through the rest of their neighbors. On graphs
+ * with one giant component this skips most of the edges
+ * @author saimaddhi
+ *
+ */
+public class ConnectedComponents {
+	/**
+	 * The number of neighbors of every vertex united before the largest component is sampled
+	 */
+	private static final int NEIGHBOR_ROUNDS = 2;
+	/**
+	 * The number of vertices sampled to find the largest component
+	 */
+	private static final int SAMPLES = 1024;
+	/**
+	 * The snapshot the components belong to
+	 */
+	private CsrGraph graph;
+	/**
+	 * The component of each dense id, numbered 0 to count-1 in order of their smallest dense id
+	 */
+	private int[] components;
+	/**
+	 * The number of components
+	 */
+	private int count;
+	/**
+	 * Constructor for the components of the snapshot given by the roots of a finished union-find
+	 * @param graph the snapshot
+	 * @param sets the union-find over the dense ids
+	 */
+	private ConnectedComponents(CsrGraph graph, ConcurrentUnionFind sets) {
+		int n = graph.vertexCount();
+		this.graph = graph;
+		this.components = new int[n];
+		
+		//Roots are the smallest id of their set, so every root comes before the rest of its set
+		for(int v = 0; v < n; v++) {
+			int root = sets.find(v);
+			components[v] = (root == v) ? count++ : components[root];
+		}
+	}
+	/**
+	 * Returns the connected components of the snapshot
+	 * @param graph the snapshot
+	 * @return the components
+	 */
+	public static ConnectedComponents of(CsrGraph graph) {
+		int n = graph.vertexCount();
+		int[] offsets = graph.getOffsets();
+		int[] targets = graph.getTargets();
+		ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+		
+		//Link every vertex to its first neighbors
+		for(int round = 0; round < NEIGHBOR_ROUNDS; round++) {
+			int r = round;
+			IntStream.range(0, n).parallel().forEach(v -> {
+				if(offsets[v] + r < offsets[v + 1]) sets.union(v, targets[offsets[v] + r]);
+			});
+		}
+		
+		//Name the most common component of a sample
+		int largest = -1;
+		if(n > 0) {
+			int[] sample = new int[SAMPLES];
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			for(int i = 0; i < SAMPLES; i++) {
+				sample[i] = sets.find(random.nextInt(n));
+			}
+			Arrays.sort(sample);
+			int best = 0;
+			for(int i = 0, j; i < SAMPLES; i = j) {
+				for(j = i; j < SAMPLES && sample[j] == sample[i]; j++) {
+				}
+				if(j - i > best) {
+					best = j - i;
+					largest = sample[i];
+				}
+			}
+		}
+		
+		//Every edge leaving the largest component is also seen from its other end
+		int giant = largest;
+		IntStream.range(0, n).parallel().forEach(v -> {
+			if(sets.find(v) == giant) return;
+			for(int i = offsets[v] + NEIGHBOR_ROUNDS; i < offsets[v + 1]; i++) {
+				sets.union(v, targets[i]);
+			}
+		});
+		return new ConnectedComponents(graph, sets);
+	}
+	/**
+	 * Getter for the snapshot the components belong to
+	 * @return the snapshot
+	 */
+	public CsrGraph getGraph() {
+		return graph;
+	}
+	/**
+	 * Getter for the number of components
+	 * @return the number of components
+	 */
+	public int count() {
+		return count;
+	}
+	/**
+	 * Returns the component of the specified vertex
+	 * @param id the dense id
+	 * @return the component, from 0 to count-1
+	 */
+	public int componentOf(int id) {
+		return components[id];
+	}
+	/**
+	 * Returns the component of the vertex with the specified label
+	 * @param label the label
+	 * @return the component, or -1 if there is no such vertex
+	 */
+	public int componentOf(String label) {
+		int id = graph.indexOf(label);
+		return (id < 0) ? -1 : components[id];
+	}
+	/**
+	 * Returns true if the two vertices are in the same component
+	 * @param a the dense id of the first vertex
+	 * @param b the dense id of the second vertex
+	 * @return true if the vertices are connected
+	 */
+	public boolean connected(int a, int b) {
+		return components[a] == components[b];
+	}
+	/**
+	 * Getter for the component of every dense id. The array is shared, not copied
+	 * @return the components
+	 */
+	public int[] getComponents() {
+		return components;
+	}
+	/**
+	 * Returns the vertices of every component
+	 * @return the list of components, each a list of vertices in dense id order
+	 */
+	public ArrayList<ArrayList<Vertex>> toVertices() {
+		ArrayList<ArrayList<Vertex>> result = new ArrayList<ArrayList<Vertex>>(count);
+		for(int c = 0; c < count; c++) {
+			result.add(new ArrayList<Vertex>());
+		}
+		for(int v = 0; v < components.length; v++) {
+			result.get(components[v]).add(graph.getVertex(v));
+		}
+		return result;
+	}
+}
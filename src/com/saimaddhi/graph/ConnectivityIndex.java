@@ -0,0 +1,86 @@
+package com.saimaddhi.graph;
+/**
+ * Answers connectivity queries on a graph that keeps changing. Added edges are merged into a union-find over the
+ * vertex ids as they arrive, so queries stay near constant time while edges stream in. Union-find cannot split a set,
+ * so a removed edge only marks the index stale and the next query rebuilds it from the parallel connected components
+ * of the graph's snapshot
+ * @author saimaddhi
+ *
+ */
+class ConnectivityIndex implements GraphListener {
+	/**
+	 * The graph being indexed
+	 */
+	private Graph graph;
+	/**
+	 * The sets of connected vertex ids, null if an edge was removed since the last rebuild
+	 */
+	private UnionFind sets;
+	/**
+	 * Constructor that indexes the specified graph and listens for its changes
+	 * @param graph the graph
+	 */
+	ConnectivityIndex(Graph graph) {
+		this.graph = graph;
+		graph.addListener(this);
+	}
+	/**
+	 * Returns true if there is a path between the two vertices
+	 * @param a the first vertex
+	 * @param b the second vertex
+	 * @return true if the vertices are connected
+	 */
+	boolean connected(Vertex a, Vertex b) {
+		if(sets == null) rebuild();
+		int size = Math.max(a.getId(), b.getId()) + 1;
+		sets.ensureCapacity(size);
+		return sets.connected(a.getId(), b.getId());
+	}
+	/**
+	 * Rebuilds the sets from the connected components of the graph's snapshot
+	 */
+	private void rebuild() {
+		CsrGraph snapshot = graph.freeze();
+		ConnectedComponents components = ConnectedComponents.of(snapshot);
+		int n = snapshot.vertexCount();
+		int size = 0;
+		for(int v = 0; v < n; v++) {
+			size = Math.max(size, snapshot.getVertex(v).getId() + 1);
+		}
+		
+		//Components are numbered in order of their first vertex, join every vertex to that one
+		int[] first = new int[components.count()];
+		int seen = 0;
+		sets = new UnionFind(size);
+		for(int v = 0; v < n; v++) {
+			int c = components.componentOf(v);
+			if(c == seen) first[seen++] = v;
+			sets.union(snapshot.getVertex(first[c]).getId(), snapshot.getVertex(v).getId());
+		}
+	}
+	/**
+	 * Gives the new vertex its own set
+	 * @param vertex the new vertex
+	 */
+	public void vertexAdded(Vertex vertex) {
+		if(sets != null) sets.ensureCapacity(vertex.getId() + 1);
+	}
+	/**
+	 * Merges the sets of the new edge's vertices
+	 * @param edge the new edge
+	 */
+	public void edgeAdded(Edge edge) {
+		if(sets == null) return;
+		int start = edge.getStart().getId();
+		int end = edge.getEnd().getId();
+		sets.ensureCapacity(Math.max(start, end) + 1);
+		sets.union(start, end);
+	}
+	/**
+	 * Marks the index stale, the removed edge may have split a set
+	 * @param edge the removed edge
+	 */
+	public void edgeRemoved(Edge edge) {
+		sets = null;
+	}
+}
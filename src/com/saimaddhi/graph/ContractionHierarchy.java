@@ -0,0 +1,575 @@
+package com.saimaddhi.graph;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import com.saimaddhi.graph.primitive.IndexedMinHeap;
+import com.saimaddhi.graph.primitive.IntList;
+/**
+ * A contraction hierarchy (Geisberger, Sanders, Schultes and Delling) for fast repeated shortest path queries on a
+ * snapshot that does not change. The vertices are contracted one level at a time and every contraction adds shortcut
+ * edges between the contracted vertex's neighbors unless a witness search finds a path that is no longer. A query is
+ * then a bidirectional Dijkstra that only follows edges towards more important vertices, which settles a few hundred
+ * vertices even on large road networks.
+ * <p>
+ * The order is chosen by edge difference, the shortcuts a contraction adds minus the edges it removes, plus the number
+ * of neighbors already contracted. Each round contracts in parallel every vertex whose priority is lower than that of
+ * all its neighbors, with witness searches that avoid every vertex of the round
+ * @author saimaddhi
+ *
+ */
+public class ContractionHierarchy {
+	/**
+	 * The magic number at the start of every file, "GRCH" in ASCII
+	 */
+	private static final int MAGIC = 0x47524348;
+	/**
+	 * The version written by this class
+	 */
+	private static final int VERSION = 1;
+	/**
+	 * The most vertices a witness search settles before giving up, which only costs extra shortcuts
+	 */
+	private static final int WITNESS_LIMIT = 500;
+	/**
+	 * The most vertices a witness search settles while only estimating a priority
+	 */
+	private static final int ESTIMATE_LIMIT = 50;
+	/**
+	 * The reusable witness and query search states of each thread
+	 */
+	private static final ThreadLocal<Dijkstra.Search> FORWARD = ThreadLocal.withInitial(Dijkstra.Search::new);
+	/**
+	 * The reusable backward query search state of each thread
+	 */
+	private static final ThreadLocal<Dijkstra.Search> BACKWARD = ThreadLocal.withInitial(Dijkstra.Search::new);
+	/**
+	 * The snapshot the hierarchy was built for
+	 */
+	private CsrGraph graph;
+	/**
+	 * The contraction order of each vertex, higher is more important
+	 */
+	private int[] ranks;
+	/**
+	 * The start of each vertex's upward edges, with one extra entry at the end
+	 */
+	private int[] offsets;
+	/**
+	 * The more important endpoint of each upward edge
+	 */
+	private int[] targets;
+	/**
+	 * The weight of each upward edge
+	 */
+	private int[] weights;
+	/**
+	 * The vertex each shortcut bypasses, -1 for edges of the graph
+	 */
+	private int[] middles;
+	/**
+	 * Constructor that wraps a built or loaded hierarchy
+	 * @param graph the snapshot
+	 * @param ranks the contraction order of each vertex
+	 * @param offsets the start of each vertex's upward edges
+	 * @param targets the upward edge targets
+	 * @param weights the upward edge weights
+	 * @param middles the bypassed vertex of each upward edge
+	 */
+	private ContractionHierarchy(CsrGraph graph, int[] ranks, int[] offsets, int[] targets, int[] weights,
+			int[] middles) {
+		this.graph = graph;
+		this.ranks = ranks;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+		this.middles = middles;
+	}
+	/**
+	 * Builds the hierarchy of the specified snapshot on the common fork join pool
+	 * @param graph the snapshot
+	 * @return the hierarchy
+	 * @throws IllegalArgumentException if the snapshot has negative weights
+	 */
+	public static ContractionHierarchy build(CsrGraph graph) {
+		Dijkstra.checkWeights(graph);
+		return new Builder(graph).build();
+	}
+	/**
+	 * Getter for the snapshot the hierarchy answers queries on
+	 * @return the snapshot
+	 */
+	public CsrGraph getGraph() {
+		return graph;
+	}
+	/**
+	 * Returns the number of shortcuts the hierarchy added to the graph
+	 * @return the number of shortcuts
+	 */
+	public int getShortcutCount() {
+		int count = 0;
+		for(int middle : middles) {
+			if(middle != -1) count++;
+		}
+		return count;
+	}
+	/**
+	 * Returns the shortest path between the vertices with the specified labels
+	 * @param source the label of the source vertex
+	 * @param target the label of the target vertex
+	 * @return the path
+	 * @throws IllegalArgumentException if either vertex does not exist
+	 */
+	public PathResult shortestPath(String source, String target) {
+		int s = graph.indexOf(source);
+		int t = graph.indexOf(target);
+		if(s < 0) throw new IllegalArgumentException("No vertex labeled " + source);
+		if(t < 0) throw new IllegalArgumentException("No vertex labeled " + target);
+		return shortestPath(s, t);
+	}
+	/**
+	 * Returns the shortest path between two vertices with a bidirectional search over the upward edges, with the
+	 * shortcuts unpacked into the edges of the graph
+	 * @param source the dense id of the source
+	 * @param target the dense id of the target
+	 * @return the path
+	 */
+	public PathResult shortestPath(int source, int target) {
+		Dijkstra.Search forward = FORWARD.get();
+		Dijkstra.Search backward = BACKWARD.get();
+		forward.begin(ranks.length);
+		backward.begin(ranks.length);
+		forward.reach(source, 0, -1);
+		forward.heap.insert(source, 0);
+		backward.reach(target, 0, -1);
+		backward.heap.insert(target, 0);
+		long best = ShortestPaths.UNREACHABLE;
+		int meet = -1;
+		int settled = 0;
+		boolean isForward = true;
+		while(true) {
+			boolean forwardDone = forward.heap.isEmpty() || forward.heap.peekKey() >= best;
+			boolean backwardDone = backward.heap.isEmpty() || backward.heap.peekKey() >= best;
+			if(forwardDone && backwardDone) break;
+			if(forwardDone || backwardDone) isForward = backwardDone;
+			Dijkstra.Search search = isForward ? forward : backward;
+			Dijkstra.Search other = isForward ? backward : forward;
+			isForward = !isForward;
+			long distance = search.heap.peekKey();
+			int v = search.heap.poll();
+			settled++;
+			if(other.reached(v) && distance + other.distances[v] < best) {
+				best = distance + other.distances[v];
+				meet = v;
+			}
+			for(int i = offsets[v]; i < offsets[v + 1]; i++) {
+				int w = targets[i];
+				long candidate = distance + weights[i];
+				if(!search.reached(w) || candidate < search.distances[w]) {
+					search.reach(w, candidate, v);
+					search.heap.offer(w, candidate);
+				}
+			}
+		}
+		if(meet < 0) return new PathResult(graph, new int[0], ShortestPaths.UNREACHABLE, settled);
+		
+		//Unpack the upward path from the source to the meeting vertex and the one from the target back down
+		int[] up = forward.path(meet);
+		int[] down = backward.path(meet);
+		IntList path = new IntList();
+		path.add(source);
+		for(int i = 1; i < up.length; i++) {
+			unpack(up[i - 1], up[i], path);
+		}
+		for(int i = down.length - 1; i > 0; i--) {
+			unpack(down[i], down[i - 1], path);
+		}
+		return new PathResult(graph, path.toArray(), best, settled);
+	}
+	/**
+	 * Appends the vertices of the edge between a and b after a, replacing shortcuts by the edges they bypass
+	 * @param a the vertex already on the path
+	 * @param b the next vertex of the path
+	 * @param path the path
+	 */
+	private void unpack(int a, int b, IntList path) {
+		IntList stack = new IntList();
+		stack.add(b);
+		int current = a;
+		while(!stack.isEmpty()) {
+			int next = stack.get(stack.size() - 1);
+			int middle = middle(current, next);
+			if(middle == -1) {
+				stack.swapRemove(stack.size() - 1);
+				path.add(next);
+				current = next;
+			} else {
+				stack.add(middle);
+			}
+		}
+	}
+	/**
+	 * Returns the vertex bypassed by the upward edge between two vertices
+	 * @param a one endpoint
+	 * @param b the other endpoint
+	 * @return the bypassed vertex, or -1 if the edge is an edge of the graph
+	 */
+	private int middle(int a, int b) {
+		int low = (ranks[a] < ranks[b]) ? a : b;
+		int high = (low == a) ? b : a;
+		for(int i = offsets[low]; i < offsets[low + 1]; i++) {
+			if(targets[i] == high) return middles[i];
+		}
+		throw new IllegalStateException("No upward edge between " + a + " and " + b);
+	}
+	/**
+	 * Writes the hierarchy to the file, replacing its contents
+	 * @param file the file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void save(Path file) throws IOException {
+		try(CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(file),
+				1 << 16), new CRC32()); DataOutputStream out = new DataOutputStream(checked)) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(ranks.length);
+			out.writeLong(fingerprint(graph));
+			out.writeInt(targets.length);
+			writeInts(out, ranks);
+			writeInts(out, offsets);
+			writeInts(out, targets);
+			writeInts(out, weights);
+			writeInts(out, middles);
+			out.flush();
+			out.writeInt((int) checked.getChecksum().getValue());
+		}
+	}
+	/**
+	 * Reads a hierarchy that was saved for the specified snapshot
+	 * @param file the file
+	 * @param graph the snapshot, which must have the same vertices the hierarchy was built for
+	 * @return the hierarchy
+	 * @throws IOException if the file cannot be read, is corrupt or belongs to another graph
+	 */
+	public static ContractionHierarchy load(Path file, CsrGraph graph) throws IOException {
+		try(CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(file),
+				1 << 16), new CRC32()); DataInputStream in = new DataInputStream(checked)) {
+			if(in.readInt() != MAGIC) throw new IOException(file + " is not a contraction hierarchy file");
+			int version = in.readInt();
+			if(version != VERSION) throw new IOException("Unsupported contraction hierarchy version " + version);
+			int n = in.readInt();
+			if(n != graph.vertexCount() || in.readLong() != fingerprint(graph)) {
+				throw new IOException(file + " was built for a different graph");
+			}
+			int m = in.readInt();
+			if(m < 0) throw new IOException("Corrupt contraction hierarchy file " + file);
+			int[] ranks = readInts(in, n);
+			int[] offsets = readInts(in, n + 1);
+			int[] targets = readInts(in, m);
+			int[] weights = readInts(in, m);
+			int[] middles = readInts(in, m);
+			int actual = (int) checked.getChecksum().getValue();
+			if(in.readInt() != actual) throw new IOException("Checksum mismatch in " + file);
+			return new ContractionHierarchy(graph, ranks, offsets, targets, weights, middles);
+		}
+	}
+	/**
+	 * Returns a hash of the vertex labels of the snapshot in dense id order
+	 * @param graph the snapshot
+	 * @return the hash
+	 */
+	private static long fingerprint(CsrGraph graph) {
+		long hash = graph.vertexCount();
+		for(int v = 0; v < graph.vertexCount(); v++) {
+			hash = 31 * hash + graph.getLabel(v).hashCode();
+		}
+		return hash;
+	}
+	/**
+	 * Writes the ints of the array
+	 * @param out the stream
+	 * @param values the ints
+	 * @throws IOException if the stream cannot be written
+	 */
+	private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+		for(int value : values) {
+			out.writeInt(value);
+		}
+	}
+	/**
+	 * Reads the specified number of ints
+	 * @param in the stream
+	 * @param count the number of ints
+	 * @return the ints
+	 * @throws IOException if the stream cannot be read or ends early
+	 */
+	private static int[] readInts(DataInputStream in, int count) throws IOException {
+		int[] values = new int[count];
+		for(int i = 0; i < count; i++) {
+			values[i] = in.readInt();
+		}
+		return values;
+	}
+	/**
+	 * The contraction of one snapshot. The remaining graph is kept as adjacency lists of the uncontracted vertices
+	 * holding at most one edge, the lightest, per neighbor
+	 */
+	private static class Builder {
+		/**
+		 * The snapshot
+		 */
+		private CsrGraph graph;
+		/**
+		 * The number of vertices
+		 */
+		private int n;
+		/**
+		 * The neighbors of each vertex in the remaining graph
+		 */
+		private IntList[] neighbors;
+		/**
+		 * The weight of the edge to each neighbor
+		 */
+		private IntList[] edgeWeights;
+		/**
+		 * The vertex bypassed by the edge to each neighbor, -1 for edges of the graph
+		 */
+		private IntList[] edgeMiddles;
+		/**
+		 * The contraction priority of each vertex
+		 */
+		private int[] priorities;
+		/**
+		 * The number of contracted neighbors of each vertex
+		 */
+		private int[] deleted;
+		/**
+		 * The contraction order of each vertex, -1 while uncontracted
+		 */
+		private int[] ranks;
+		/**
+		 * True for the vertices contracted in the current round, which witness searches avoid
+		 */
+		private boolean[] contracting;
+		/**
+		 * Constructor that loads the snapshot's edges into the remaining graph
+		 * @param graph the snapshot
+		 */
+		private Builder(CsrGraph graph) {
+			this.graph = graph;
+			this.n = graph.vertexCount();
+			int[] offsets = graph.getOffsets();
+			int[] targets = graph.getTargets();
+			int[] weights = graph.getWeights();
+			neighbors = new IntList[n];
+			edgeWeights = new IntList[n];
+			edgeMiddles = new IntList[n];
+			for(int v = 0; v < n; v++) {
+				neighbors[v] = new IntList(offsets[v + 1] - offsets[v]);
+				edgeWeights[v] = new IntList(offsets[v + 1] - offsets[v]);
+				edgeMiddles[v] = new IntList(offsets[v + 1] - offsets[v]);
+				for(int i = offsets[v]; i < offsets[v + 1]; i++) {
+					if(targets[i] != v) connect(v, targets[i], weights[i], -1);
+				}
+			}
+			priorities = new int[n];
+			deleted = new int[n];
+			ranks = new int[n];
+			Arrays.fill(ranks, -1);
+			contracting = new boolean[n];
+		}
+		/**
+		 * Contracts every vertex and packs the upward edges
+		 * @return the hierarchy
+		 */
+		private ContractionHierarchy build() {
+			IntList[] upTargets = new IntList[n];
+			IntList[] upWeights = new IntList[n];
+			IntList[] upMiddles = new IntList[n];
+			IntStream.range(0, n).parallel().forEach(v -> priorities[v] = priority(v));
+			int[] remaining = IntStream.range(0, n).toArray();
+			int rank = 0;
+			while(remaining.length > 0) {
+				//Contract the vertices whose priority is below that of all their neighbors
+				int[] round = IntStream.of(remaining).parallel().filter(this::isLocalMinimum).toArray();
+				for(int v : round) {
+					contracting[v] = true;
+				}
+				int[][] shortcuts = IntStream.of(round).parallel().mapToObj(v -> shortcuts(v, true).toArray())
+						.toArray(int[][]::new);
+				IntList touched = new IntList();
+				for(int i = 0; i < round.length; i++) {
+					int v = round[i];
+					ranks[v] = rank++;
+					upTargets[v] = neighbors[v];
+					upWeights[v] = edgeWeights[v];
+					upMiddles[v] = edgeMiddles[v];
+					for(int j = 0; j < neighbors[v].size(); j++) {
+						int u = neighbors[v].get(j);
+						disconnect(u, v);
+						deleted[u]++;
+						touched.add(u);
+					}
+					int[] added = shortcuts[i];
+					for(int j = 0; j < added.length; j += 3) {
+						connect(added[j], added[j + 1], added[j + 2], v);
+						connect(added[j + 1], added[j], added[j + 2], v);
+					}
+				}
+				for(int v : round) {
+					contracting[v] = false;
+				}
+				
+				//Update the priorities of the neighbors of the contracted vertices
+				int[] dirty = IntStream.of(touched.toArray()).distinct().toArray();
+				IntStream.of(dirty).parallel().forEach(v -> priorities[v] = priority(v));
+				remaining = IntStream.of(remaining).parallel().filter(v -> ranks[v] < 0).toArray();
+			}
+			
+			int[] offsets = new int[n + 1];
+			for(int v = 0; v < n; v++) {
+				offsets[v + 1] = offsets[v] + upTargets[v].size();
+			}
+			int[] targets = new int[offsets[n]];
+			int[] weights = new int[offsets[n]];
+			int[] middles = new int[offsets[n]];
+			for(int v = 0; v < n; v++) {
+				for(int j = 0; j < upTargets[v].size(); j++) {
+					targets[offsets[v] + j] = upTargets[v].get(j);
+					weights[offsets[v] + j] = upWeights[v].get(j);
+					middles[offsets[v] + j] = upMiddles[v].get(j);
+				}
+			}
+			return new ContractionHierarchy(graph, ranks, offsets, targets, weights, middles);
+		}
+		/**
+		 * Returns true if the vertex has a lower priority than all of its remaining neighbors, ties broken by id
+		 * @param v the vertex
+		 * @return true if it can be contracted this round
+		 */
+		private boolean isLocalMinimum(int v) {
+			for(int j = 0; j < neighbors[v].size(); j++) {
+				int u = neighbors[v].get(j);
+				if(priorities[u] < priorities[v] || (priorities[u] == priorities[v] && u < v)) return false;
+			}
+			return true;
+		}
+		/**
+		 * Returns the edge difference of the vertex plus its number of contracted neighbors
+		 * @param v the vertex
+		 * @return the priority, lower is contracted sooner
+		 */
+		private int priority(int v) {
+			return shortcuts(v, false).size() / 3 - neighbors[v].size() + deleted[v];
+		}
+		/**
+		 * Returns the shortcuts contracting the vertex would add
+		 * @param v the vertex
+		 * @param avoidRound true to keep witness paths away from every vertex of the round
+		 * @return the shortcuts as (u, w, weight) triples
+		 */
+		private IntList shortcuts(int v, boolean avoidRound) {
+			IntList result = new IntList();
+			IntList around = neighbors[v];
+			IntList aroundWeights = edgeWeights[v];
+			Dijkstra.Search search = FORWARD.get();
+			for(int i = 0; i < around.size(); i++) {
+				int u = around.get(i);
+				long limit = 0;
+				for(int j = i + 1; j < around.size(); j++) {
+					limit = Math.max(limit, (long) aroundWeights.get(i) + aroundWeights.get(j));
+				}
+				if(i + 1 == around.size()) break;
+				witnessSearch(search, u, v, limit, avoidRound);
+				for(int j = i + 1; j < around.size(); j++) {
+					int w = around.get(j);
+					long through = (long) aroundWeights.get(i) + aroundWeights.get(j);
+					if(search.reached(w) && search.distances[w] <= through) continue;
+					if(through > Integer.MAX_VALUE) throw new IllegalStateException("Shortcut weight overflows an int");
+					result.add(u);
+					result.add(w);
+					result.add((int) through);
+				}
+			}
+			return result;
+		}
+		/**
+		 * Runs a bounded Dijkstra from the source that does not pass through the contracted vertex
+		 * @param search the search state
+		 * @param source the source
+		 * @param avoid the vertex being contracted
+		 * @param limit the distance beyond which no witness is needed
+		 * @param avoidRound true to also avoid every vertex of the round
+		 */
+		private void witnessSearch(Dijkstra.Search search, int source, int avoid, long limit, boolean avoidRound) {
+			search.begin(n);
+			IndexedMinHeap heap = search.heap;
+			search.reach(source, 0, -1);
+			heap.insert(source, 0);
+			int settled = 0;
+			while(!heap.isEmpty() && settled < (avoidRound ? WITNESS_LIMIT : ESTIMATE_LIMIT)) {
+				long distance = heap.peekKey();
+				if(distance > limit) break;
+				int x = heap.poll();
+				settled++;
+				IntList next = neighbors[x];
+				for(int j = 0; j < next.size(); j++) {
+					int y = next.get(j);
+					if(y == avoid || (avoidRound && contracting[y])) continue;
+					long candidate = distance + edgeWeights[x].get(j);
+					if(!search.reached(y) || candidate < search.distances[y]) {
+						search.reach(y, candidate, x);
+						heap.offer(y, candidate);
+					}
+				}
+			}
+		}
+		/**
+		 * Adds an edge from u to w or lowers the weight of the existing one
+		 * @param u the vertex whose list is changed
+		 * @param w the neighbor
+		 * @param weight the weight
+		 * @param middle the bypassed vertex, -1 for edges of the graph
+		 */
+		private void connect(int u, int w, int weight, int middle) {
+			IntList list = neighbors[u];
+			for(int j = 0; j < list.size(); j++) {
+				if(list.get(j) == w) {
+					if(weight < edgeWeights[u].get(j)) {
+						edgeWeights[u].set(j, weight);
+						edgeMiddles[u].set(j, middle);
+					}
+					return;
+				}
+			}
+			list.add(w);
+			edgeWeights[u].add(weight);
+			edgeMiddles[u].add(middle);
+		}
+		/**
+		 * Removes the edge from u to w
+		 * @param u the vertex whose list is changed
+		 * @param w the neighbor
+		 */
+		private void disconnect(int u, int w) {
+			IntList list = neighbors[u];
+			for(int j = 0; j < list.size(); j++) {
+				if(list.get(j) == w) {
+					list.swapRemove(j);
+					edgeWeights[u].swapRemove(j);
+					edgeMiddles[u].swapRemove(j);
+					return;
+				}
+			}
+		}
+	}
+}
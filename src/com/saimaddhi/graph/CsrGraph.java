@@ -0,0 +1,336 @@
+package com.saimaddhi.graph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+import com.saimaddhi.graph.primitive.IntIntMap;
+import com.saimaddhi.graph.primitive.RadixSort;
+/**
+ * An immutable compressed sparse row snapshot of a graph. The vertices are given the dense ids 0 to n-1 and the
+ * neighbors of vertex v are stored in targets[offsets[v]] to targets[offsets[v+1]-1]
+ * @author saimaddhi
+ *
+ */
+public class CsrGraph {
+	/**
+	 * The vertices of the snapshot indexed by dense id
+	 */
+	private final Vertex[] vertices;
+	/**
+	 * The dense ids of the vertices keyed by label
+	 */
+	private final HashMap<String, Integer> ids;
+	/**
+	 * The start of each vertex's neighbors in the targets array, with one extra entry at the end
+	 */
+	private final int[] offsets;
+	/**
+	 * The dense ids of the neighbors of every vertex
+	 */
+	private final int[] targets;
+	/**
+	 * The weight of the edge leading to each entry of the targets array
+	 */
+	private final int[] weights;
+	/**
+	 * The edge id of the edge leading to each entry of the targets array
+	 */
+	private final int[] edgeIds;
+	/**
+	 * The edges of the snapshot indexed by edge id
+	 */
+	private final Edge[] edges;
+	/**
+	 * The dense id of the start vertex of each edge
+	 */
+	private final int[] edgeStarts;
+	/**
+	 * The dense id of the end vertex of each edge
+	 */
+	private final int[] edgeEnds;
+	/**
+	 * The weight of each edge
+	 */
+	private final int[] edgeWeights;
+	/**
+	 * True if any edge has a negative weight
+	 */
+	private final boolean negativeWeights;
+	/**
+	 * Constructor that packs the specified vertices and edges, the dense ids follow the order of the graph's vertex ids
+	 * and the edge ids follow the order of the edge list
+	 * @param vertexSet the vertices of the graph
+	 * @param edgeList the edges of the graph
+	 */
+	CsrGraph(Collection<Vertex> vertexSet, List<Edge> edgeList) {
+		int n = vertexSet.size();
+		int m = edgeList.size();
+		vertices = vertexSet.toArray(new Vertex[n]);
+		Arrays.sort(vertices, (a, b) -> Integer.compare(a.getId(), b.getId()));
+		ids = new HashMap<String, Integer>(n * 2);
+		IntIntMap dense = new IntIntMap(n);
+		for(int i = 0; i < n; i++) {
+			ids.put(vertices[i].getLabel(), i);
+			dense.put(vertices[i].getId(), i);
+		}
+		
+		//Columns of the edge list
+		edges = edgeList.toArray(new Edge[m]);
+		edgeStarts = new int[m];
+		edgeEnds = new int[m];
+		edgeWeights = new int[m];
+		offsets = new int[n + 1];
+		boolean negative = false;
+		for(int i = 0; i < m; i++) {
+			edgeStarts[i] = dense.get(edges[i].getStart().getId(), -1);
+			edgeEnds[i] = dense.get(edges[i].getEnd().getId(), -1);
+			edgeWeights[i] = edges[i].getWeight();
+			negative |= edgeWeights[i] < 0;
+			offsets[edgeStarts[i] + 1]++;
+			offsets[edgeEnds[i] + 1]++;
+		}
+		negativeWeights = negative;
+		for(int v = 0; v < n; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		
+		//Scatter both directions of every edge
+		targets = new int[2 * m];
+		weights = new int[2 * m];
+		edgeIds = new int[2 * m];
+		int[] next = Arrays.copyOf(offsets, n);
+		for(int i = 0; i < m; i++) {
+			int slot = next[edgeStarts[i]]++;
+			targets[slot] = edgeEnds[i];
+			weights[slot] = edgeWeights[i];
+			edgeIds[slot] = i;
+			slot = next[edgeEnds[i]]++;
+			targets[slot] = edgeStarts[i];
+			weights[slot] = edgeWeights[i];
+			edgeIds[slot] = i;
+		}
+	}
+	/**
+	 * Getter for the number of vertices
+	 * @return the number of vertices
+	 */
+	public int vertexCount() {
+		return vertices.length;
+	}
+	/**
+	 * Getter for the number of edges
+	 * @return the number of edges
+	 */
+	public int edgeCount() {
+		return edges.length;
+	}
+	/**
+	 * Returns true if any edge has a negative weight
+	 * @return true if there are negative weights
+	 */
+	public boolean hasNegativeWeights() {
+		return negativeWeights;
+	}
+	/**
+	 * Returns the dense id of the vertex with the specified label
+	 * @param label the label
+	 * @return the dense id, or -1 if there is no such vertex
+	 */
+	public int indexOf(String label) {
+		Integer id = ids.get(label);
+		return (id == null) ? -1 : id;
+	}
+	/**
+	 * Returns the vertex with the specified dense id
+	 * @param id the dense id
+	 * @return the vertex
+	 */
+	public Vertex getVertex(int id) {
+		return vertices[id];
+	}
+	/**
+	 * Returns the label of the vertex with the specified dense id
+	 * @param id the dense id
+	 * @return the label
+	 */
+	public String getLabel(int id) {
+		return vertices[id].getLabel();
+	}
+	/**
+	 * Returns the edge with the specified edge id
+	 * @param id the edge id
+	 * @return the edge
+	 */
+	public Edge getEdge(int id) {
+		return edges[id];
+	}
+	/**
+	 * Returns the number of neighbors of the specified vertex
+	 * @param id the dense id
+	 * @return the degree
+	 */
+	public int degree(int id) {
+		return offsets[id + 1] - offsets[id];
+	}
+	/**
+	 * Returns the depth first traversal starting from the specified vertex
+	 * @param source the dense id of the starting vertex
+	 * @return the dense ids of the vertices part of the traversal
+	 */
+	public int[] depthFirstTraversal(int source) {
+		boolean[] visited = new boolean[vertices.length];
+		int[] stack = new int[vertices.length];
+		int[] order = new int[vertices.length];
+		int top = 0;
+		int count = 0;
+		stack[top++] = source;
+		visited[source] = true;
+		while(top > 0) {
+			int v = stack[--top];
+			order[count++] = v;
+			for(int i = offsets[v]; i < offsets[v + 1]; i++) {
+				int w = targets[i];
+				if(!visited[w]) {
+					stack[top++] = w;
+					visited[w] = true;
+				}
+			}
+		}
+		return Arrays.copyOf(order, count);
+	}
+	/**
+	 * Returns the breadth first traversal starting from the specified vertex
+	 * @param source the dense id of the starting vertex
+	 * @return the dense ids of the vertices part of the traversal
+	 */
+	public int[] breadthFirstTraversal(int source) {
+		boolean[] visited = new boolean[vertices.length];
+		int[] queue = new int[vertices.length];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = source;
+		visited[source] = true;
+		while(head < tail) {
+			int v = queue[head++];
+			for(int i = offsets[v]; i < offsets[v + 1]; i++) {
+				int w = targets[i];
+				if(!visited[w]) {
+					queue[tail++] = w;
+					visited[w] = true;
+				}
+			}
+		}
+		return Arrays.copyOf(queue, tail);
+	}
+	/**
+	 * Returns the edges of the minimum spanning forest using Kruskal's algorithm, ties in weight are broken by edge id.
+	 * The edges are ordered by a parallel radix sort of packed (weight, edge id) keys
+	 * @return the list of edges part of the mst
+	 */
+	public ArrayList<Edge> minimumSpanningTree() {
+		ArrayList<Edge> tree = new ArrayList<Edge>();
+		long[] keys = sortedEdgeKeys();
+		UnionFind components = new UnionFind(vertices.length);
+		for(int i = 0; i < keys.length && tree.size() < vertices.length - 1; i++) {
+			int edge = (int) keys[i];
+			if(components.union(edgeStarts[edge], edgeEnds[edge])) {
+				tree.add(edges[edge]);
+			}
+		}
+		return tree;
+	}
+	/**
+	 * Returns the packed (weight, edge id) key of every edge in increasing order
+	 * @return the sorted keys, the edge id of a key is its lower 32 bits
+	 */
+	long[] sortedEdgeKeys() {
+		long[] keys = new long[edges.length];
+		for(int i = 0; i < edges.length; i++) {
+			keys[i] = ((long) edgeWeights[i] << 32) | i;
+		}
+		
+		//The keys are made in edge id order, so only the weight bytes need sorting
+		RadixSort.sort(keys, 4);
+		return keys;
+	}
+	/**
+	 * Returns the edges with the specified ids ordered by weight and then by edge id
+	 * @param ids the edge ids
+	 * @return the list of edges
+	 */
+	ArrayList<Edge> edgesByWeight(int[] ids) {
+		long[] keys = new long[ids.length];
+		for(int i = 0; i < ids.length; i++) {
+			keys[i] = ((long) edgeWeights[ids[i]] << 32) | ids[i];
+		}
+		RadixSort.sort(keys);
+		ArrayList<Edge> result = new ArrayList<Edge>(ids.length);
+		for(long key : keys) {
+			result.add(edges[(int) key]);
+		}
+		return result;
+	}
+	/**
+	 * Maps the specified dense ids back to their vertices
+	 * @param ids the dense ids
+	 * @return the list of vertices
+	 */
+	public ArrayList<Vertex> toVertices(int[] ids) {
+		ArrayList<Vertex> result = new ArrayList<Vertex>(ids.length);
+		for(int id : ids) {
+			result.add(vertices[id]);
+		}
+		return result;
+	}
+	/**
+	 * Getter for the offsets array
+	 * @return the offsets
+	 */
+	int[] getOffsets() {
+		return offsets;
+	}
+	/**
+	 * Getter for the targets array
+	 * @return the targets
+	 */
+	int[] getTargets() {
+		return targets;
+	}
+	/**
+	 * Getter for the weights array
+	 * @return the weights
+	 */
+	int[] getWeights() {
+		return weights;
+	}
+	/**
+	 * Getter for the edge id of every entry of the targets array
+	 * @return the edge ids
+	 */
+	int[] getEdgeIds() {
+		return edgeIds;
+	}
+	/**
+	 * Getter for the start vertex of every edge
+	 * @return the dense start ids
+	 */
+	int[] getEdgeStarts() {
+		return edgeStarts;
+	}
+	/**
+	 * Getter for the end vertex of every edge
+	 * @return the dense end ids
+	 */
+	int[] getEdgeEnds() {
+		return edgeEnds;
+	}
+	/**
+	 * Getter for the weight of every edge
+	 * @return the edge weights
+	 */
+	int[] getEdgeWeights() {
+		return edgeWeights;
+	}
+}
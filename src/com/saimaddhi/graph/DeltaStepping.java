@@ -0,0 +1,342 @@
+package com.saimaddhi.graph;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+import com.saimaddhi.graph.primitive.IntDeque;
+import com.saimaddhi.graph.primitive.IntList;
+/**
+ * The delta-stepping single source shortest path algorithm (Meyer and Sanders) over a CSR snapshot, run on the common
+ * fork join pool. Vertices are kept in buckets of width delta by tentative distance. The smallest bucket is emptied by
+ * relaxing the light edges, those no heavier than delta, of its vertices in parallel until no vertex falls back into
+ * it, and then the heavy edges of every vertex it held are relaxed once. The distances are the same as Dijkstra's
+ * @author saimaddhi
+ *
+ */
+public class DeltaStepping {
+	/**
+	 * The number of frontier vertices handled by one task
+	 */
+	private static final int CHUNK = 1024;
+	/**
+	 * The most edge weights sampled to choose delta
+	 */
+	private static final int SAMPLES = 4096;
+	/**
+	 * The snapshot
+	 */
+	private CsrGraph graph;
+	/**
+	 * The start of each vertex's neighbors, as in the snapshot
+	 */
+	private int[] offsets;
+	/**
+	 * The end of each vertex's light neighbors, which come before its heavy ones
+	 */
+	private int[] lightEnds;
+	/**
+	 * The neighbors of every vertex with the light edges first
+	 */
+	private int[] targets;
+	/**
+	 * The weights of the reordered neighbors
+	 */
+	private int[] weights;
+	/**
+	 * The bucket width
+	 */
+	private long delta;
+	/**
+	 * The tentative distance of every vertex
+	 */
+	private AtomicLongArray distances;
+	/**
+	 * The non-empty buckets keyed by bucket number, so far apart distances never allocate the buckets between them.
+	 * Vertices whose distance dropped since they were added are skipped when their bucket is processed
+	 */
+	private TreeMap<Long, IntList> buckets;
+	/**
+	 * The step each vertex was last added to a frontier in
+	 */
+	private int[] marks;
+	/**
+	 * The number of the current step
+	 */
+	private int step;
+	/**
+	 * Constructor for one run over the specified snapshot
+	 * @param graph the snapshot
+	 * @param delta the bucket width
+	 */
+	private DeltaStepping(CsrGraph graph, long delta) {
+		this.graph = graph;
+		this.delta = delta;
+		int n = graph.vertexCount();
+		offsets = graph.getOffsets();
+		int[] allTargets = graph.getTargets();
+		int[] allWeights = graph.getWeights();
+		lightEnds = new int[n];
+		targets = new int[allTargets.length];
+		weights = new int[allWeights.length];
+		
+		//Split every adjacency list into its light and heavy edges
+		IntStream.range(0, n).parallel().forEach(v -> {
+			int light = offsets[v];
+			int heavy = offsets[v + 1];
+			for(int i = offsets[v]; i < offsets[v + 1]; i++) {
+				int slot = (allWeights[i] <= delta) ? light++ : --heavy;
+				targets[slot] = allTargets[i];
+				weights[slot] = allWeights[i];
+			}
+			lightEnds[v] = light;
+		});
+		distances = new AtomicLongArray(n);
+		for(int v = 0; v < n; v++) {
+			distances.lazySet(v, ShortestPaths.UNREACHABLE);
+		}
+		buckets = new TreeMap<Long, IntList>();
+		marks = new int[n];
+		step = 0;
+	}
+	/**
+	 * Returns the shortest paths from the source to every vertex, with delta chosen from the edge weights
+	 * @param graph the snapshot
+	 * @param source the dense id of the source
+	 * @return the shortest paths
+	 * @throws IllegalArgumentException if the snapshot has negative weights
+	 */
+	public static ShortestPaths shortestPaths(CsrGraph graph, int source) {
+		return shortestPaths(graph, source, chooseDelta(graph));
+	}
+	/**
+	 * Returns the shortest paths from the source to every vertex
+	 * @param graph the snapshot
+	 * @param source the dense id of the source
+	 * @param delta the bucket width, at least 1
+	 * @return the shortest paths
+	 * @throws IllegalArgumentException if the snapshot has negative weights or delta is not positive
+	 */
+	public static ShortestPaths shortestPaths(CsrGraph graph, int source, long delta) {
+		Dijkstra.checkWeights(graph);
+		if(delta < 1) throw new IllegalArgumentException("Delta must be positive");
+		DeltaStepping run = new DeltaStepping(graph, delta);
+		run.run(source);
+		int n = graph.vertexCount();
+		long[] distances = new long[n];
+		for(int v = 0; v < n; v++) {
+			distances[v] = run.distances.get(v);
+		}
+		return new ShortestPaths(graph, source, distances, parents(graph, source, distances));
+	}
+	/**
+	 * Chooses delta as about the 90th percentile edge weight divided by the average number of edges per vertex, so that
+	 * a vertex has a few light edges and the buckets are neither too fine nor too coarse (Meyer and Sanders use the
+	 * largest weight over the degree for uniformly random weights)
+	 * @param graph the snapshot
+	 * @return the bucket width, at least 1
+	 */
+	static long chooseDelta(CsrGraph graph) {
+		int m = graph.edgeCount();
+		if(m == 0) return 1;
+		int[] edgeWeights = graph.getEdgeWeights();
+		int count = Math.min(m, SAMPLES);
+		int[] sample = new int[count];
+		for(int i = 0; i < count; i++) {
+			sample[i] = edgeWeights[(int) ((long) m * i / count)];
+		}
+		Arrays.sort(sample);
+		long percentile = sample[(int) (count * 0.9)];
+		return Math.max(1, percentile * graph.vertexCount() / m);
+	}
+	/**
+	 * Runs the buckets from the source until every reachable vertex is settled
+	 * @param source the dense id of the source
+	 */
+	private void run(int source) {
+		distances.set(source, 0);
+		add(0, source);
+		while(!buckets.isEmpty()) {
+			Map.Entry<Long, IntList> first = buckets.pollFirstEntry();
+			long b = first.getKey();
+			IntList bucket = first.getValue();
+			IntList settled = new IntList();
+			IntList frontier = frontier(bucket, b);
+			while(!frontier.isEmpty()) {
+				for(int i = 0; i < frontier.size(); i++) {
+					settled.add(frontier.get(i));
+				}
+				int[] reached = relax(frontier.toArray(), true);
+				IntList next = new IntList();
+				distribute(reached, b, next);
+				frontier = frontier(next, b);
+			}
+			distribute(relax(dedupe(settled), false), b, null);
+		}
+	}
+	/**
+	 * Relaxes the light or heavy edges of the specified vertices in parallel
+	 * @param vertices the vertices
+	 * @param light true to relax the light edges, false for the heavy ones
+	 * @return the vertices whose distance was lowered, possibly more than once each
+	 */
+	private int[] relax(int[] vertices, boolean light) {
+		int chunks = (vertices.length + CHUNK - 1) / CHUNK;
+		int[][] parts = IntStream.range(0, chunks).parallel().mapToObj(c -> {
+			IntList local = new IntList();
+			for(int i = c * CHUNK; i < Math.min(vertices.length, (c + 1) * CHUNK); i++) {
+				int v = vertices[i];
+				long distance = distances.get(v);
+				int from = light ? offsets[v] : lightEnds[v];
+				int to = light ? lightEnds[v] : offsets[v + 1];
+				for(int j = from; j < to; j++) {
+					if(lower(targets[j], distance + weights[j])) local.add(targets[j]);
+				}
+			}
+			return local.toArray();
+		}).toArray(int[][]::new);
+		int size = 0;
+		for(int[] part : parts) {
+			size += part.length;
+		}
+		int[] result = new int[size];
+		size = 0;
+		for(int[] part : parts) {
+			System.arraycopy(part, 0, result, size, part.length);
+			size += part.length;
+		}
+		return result;
+	}
+	/**
+	 * Lowers the distance of the vertex if the candidate is smaller
+	 * @param v the vertex
+	 * @param candidate the candidate distance
+	 * @return true if the distance was lowered
+	 */
+	private boolean lower(int v, long candidate) {
+		long current = distances.get(v);
+		while(candidate < current) {
+			if(distances.compareAndSet(v, current, candidate)) return true;
+			current = distances.get(v);
+		}
+		return false;
+	}
+	/**
+	 * Puts the reached vertices into the buckets of their current distance
+	 * @param reached the reached vertices
+	 * @param current the bucket being processed
+	 * @param same the list that receives the vertices that belong to the current bucket, null if there can be none
+	 */
+	private void distribute(int[] reached, long current, IntList same) {
+		for(int v : reached) {
+			long b = bucketOf(distances.get(v));
+			if(b == current && same != null) {
+				same.add(v);
+			} else {
+				add(b, v);
+			}
+		}
+	}
+	/**
+	 * Returns the vertices of the list that are still in the specified bucket, without duplicates
+	 * @param list the vertices
+	 * @param b the bucket
+	 * @return the frontier
+	 */
+	private IntList frontier(IntList list, long b) {
+		step++;
+		IntList frontier = new IntList(list.size());
+		for(int i = 0; i < list.size(); i++) {
+			int v = list.get(i);
+			if(marks[v] != step && bucketOf(distances.get(v)) == b) {
+				marks[v] = step;
+				frontier.add(v);
+			}
+		}
+		return frontier;
+	}
+	/**
+	 * Removes the duplicates from the list
+	 * @param list the vertices
+	 * @return the distinct vertices
+	 */
+	private int[] dedupe(IntList list) {
+		step++;
+		IntList distinct = new IntList(list.size());
+		for(int i = 0; i < list.size(); i++) {
+			int v = list.get(i);
+			if(marks[v] != step) {
+				marks[v] = step;
+				distinct.add(v);
+			}
+		}
+		return distinct.toArray();
+	}
+	/**
+	 * Returns the bucket of the specified distance
+	 * @param distance the distance
+	 * @return the bucket number
+	 */
+	private long bucketOf(long distance) {
+		return distance / delta;
+	}
+	/**
+	 * Adds the vertex to the specified bucket
+	 * @param b the bucket number
+	 * @param v the vertex
+	 */
+	private void add(long b, int v) {
+		IntList bucket = buckets.get(b);
+		if(bucket == null) {
+			bucket = new IntList();
+			buckets.put(b, bucket);
+		}
+		bucket.add(v);
+	}
+	/**
+	 * Derives a shortest path tree from final distances. Every vertex takes a neighbor joined by a positive tight edge
+	 * as its parent, which cannot form a cycle, and the vertices only reached through zero weight edges are then given
+	 * parents by a breadth first search along the tight zero weight edges
+	 * @param graph the snapshot
+	 * @param source the dense id of the source
+	 * @param distances the final distances
+	 * @return the parent of every vertex, -1 for the source and unreachable vertices
+	 */
+	static int[] parents(CsrGraph graph, int source, long[] distances) {
+		int n = graph.vertexCount();
+		int[] offsets = graph.getOffsets();
+		int[] targets = graph.getTargets();
+		int[] weights = graph.getWeights();
+		int[] parents = new int[n];
+		boolean[] zero = new boolean[1];
+		IntStream.range(0, n).parallel().forEach(v -> {
+			parents[v] = -1;
+			if(v == source || distances[v] == ShortestPaths.UNREACHABLE) return;
+			for(int i = offsets[v]; i < offsets[v + 1]; i++) {
+				if(weights[i] > 0 && distances[targets[i]] + weights[i] == distances[v]) {
+					parents[v] = targets[i];
+					return;
+				}
+			}
+			zero[0] = true;
+		});
+		if(!zero[0]) return parents;
+		
+		IntDeque queue = new IntDeque();
+		for(int v = 0; v < n; v++) {
+			if(v == source || parents[v] != -1) queue.addLast(v);
+		}
+		while(!queue.isEmpty()) {
+			int v = queue.pollFirst();
+			for(int i = offsets[v]; i < offsets[v + 1]; i++) {
+				int w = targets[i];
+				if(weights[i] == 0 && w != source && parents[w] == -1 && distances[w] == distances[v]) {
+					parents[w] = v;
+					queue.addLast(w);
+				}
+			}
+		}
+		return parents;
+	}
+}
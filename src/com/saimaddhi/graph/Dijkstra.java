@@ -0,0 +1,183 @@
+package com.saimaddhi.graph;
+import java.util.Arrays;
+
+import com.saimaddhi.graph.primitive.IndexedMinHeap;
+/**
+ * Dijkstra's shortest path algorithm over a CSR snapshot, driven by an indexed d-ary heap of tentative distances. The
+ * point to point search reuses per thread arrays that are invalidated by an epoch stamp, so after the first query on a
+ * thread no memory is allocated until the path itself is built
+ * @author saimaddhi
+ *
+ */
+public class Dijkstra {
+	/**
+	 * The reusable search state of each thread
+	 */
+	private static final ThreadLocal<Search> SEARCHES = ThreadLocal.withInitial(Search::new);
+	/**
+	 * This class only has static methods
+	 */
+	private Dijkstra() {
+	}
+	/**
+	 * Returns the shortest paths from the source to every vertex
+	 * @param graph the snapshot
+	 * @param source the dense id of the source
+	 * @return the shortest paths
+	 * @throws IllegalArgumentException if the snapshot has negative weights
+	 */
+	public static ShortestPaths shortestPaths(CsrGraph graph, int source) {
+		checkWeights(graph);
+		int n = graph.vertexCount();
+		int[] offsets = graph.getOffsets();
+		int[] targets = graph.getTargets();
+		int[] weights = graph.getWeights();
+		long[] distances = new long[n];
+		int[] parents = new int[n];
+		Arrays.fill(distances, ShortestPaths.UNREACHABLE);
+		Arrays.fill(parents, -1);
+		IndexedMinHeap heap = new IndexedMinHeap(n);
+		distances[source] = 0;
+		heap.insert(source, 0);
+		while(!heap.isEmpty()) {
+			long distance = heap.peekKey();
+			int v = heap.poll();
+			for(int i = offsets[v]; i < offsets[v + 1]; i++) {
+				int w = targets[i];
+				long candidate = distance + weights[i];
+				if(candidate < distances[w]) {
+					distances[w] = candidate;
+					parents[w] = v;
+					heap.offer(w, candidate);
+				}
+			}
+		}
+		return new ShortestPaths(graph, source, distances, parents);
+	}
+	/**
+	 * Returns the shortest path from the source to the target, stopping as soon as the target is settled
+	 * @param graph the snapshot
+	 * @param source the dense id of the source
+	 * @param target the dense id of the target
+	 * @return the path
+	 * @throws IllegalArgumentException if the snapshot has negative weights
+	 */
+	public static PathResult shortestPath(CsrGraph graph, int source, int target) {
+		checkWeights(graph);
+		int[] offsets = graph.getOffsets();
+		int[] targets = graph.getTargets();
+		int[] weights = graph.getWeights();
+		Search search = SEARCHES.get();
+		search.begin(graph.vertexCount());
+		IndexedMinHeap heap = search.heap;
+		search.reach(source, 0, -1);
+		heap.insert(source, 0);
+		int settled = 0;
+		while(!heap.isEmpty()) {
+			long distance = heap.peekKey();
+			int v = heap.poll();
+			settled++;
+			if(v == target) return new PathResult(graph, search.path(target), distance, settled);
+			for(int i = offsets[v]; i < offsets[v + 1]; i++) {
+				int w = targets[i];
+				long candidate = distance + weights[i];
+				if(!search.reached(w) || candidate < search.distances[w]) {
+					search.reach(w, candidate, v);
+					heap.offer(w, candidate);
+				}
+			}
+		}
+		return new PathResult(graph, new int[0], ShortestPaths.UNREACHABLE, settled);
+	}
+	/**
+	 * Makes sure the snapshot has no negative weights
+	 * @param graph the snapshot
+	 * @throws IllegalArgumentException if it has negative weights
+	 */
+	static void checkWeights(CsrGraph graph) {
+		if(graph.hasNegativeWeights()) {
+			throw new IllegalArgumentException("Shortest paths need non-negative edge weights");
+		}
+	}
+	/**
+	 * The reusable state of the searches run by one thread. A vertex's distance and parent are only valid if it was
+	 * stamped with the current epoch
+	 */
+	static class Search {
+		/**
+		 * The epoch each vertex was last reached in
+		 */
+		private int[] marks = new int[0];
+		/**
+		 * The epoch of the current search
+		 */
+		private int epoch;
+		/**
+		 * The tentative distance of each reached vertex
+		 */
+		long[] distances = new long[0];
+		/**
+		 * The parent of each reached vertex
+		 */
+		int[] parents = new int[0];
+		/**
+		 * The heap of the search
+		 */
+		IndexedMinHeap heap = new IndexedMinHeap(0);
+		/**
+		 * Starts a new search over the specified number of vertices
+		 * @param n the number of vertices
+		 */
+		void begin(int n) {
+			if(marks.length < n) {
+				int capacity = Math.max(n, marks.length * 2);
+				marks = new int[capacity];
+				distances = new long[capacity];
+				parents = new int[capacity];
+				heap = new IndexedMinHeap(capacity);
+				epoch = 0;
+			}
+			epoch++;
+			if(epoch == 0) {
+				Arrays.fill(marks, 0);
+				epoch = 1;
+			}
+			heap.clear();
+		}
+		/**
+		 * Returns true if the vertex was reached in this search
+		 * @param v the vertex
+		 * @return true if it has a tentative distance
+		 */
+		boolean reached(int v) {
+			return marks[v] == epoch;
+		}
+		/**
+		 * Records a new tentative distance of the vertex
+		 * @param v the vertex
+		 * @param distance the distance
+		 * @param parent the vertex it was reached from
+		 */
+		void reach(int v, long distance, int parent) {
+			marks[v] = epoch;
+			distances[v] = distance;
+			parents[v] = parent;
+		}
+		/**
+		 * Returns the path to the vertex by following the parents back to the source
+		 * @param target the vertex
+		 * @return the dense ids from the source to the vertex
+		 */
+		int[] path(int target) {
+			int length = 0;
+			for(int v = target; v != -1; v = parents[v]) {
+				length++;
+			}
+			int[] ids = new int[length];
+			for(int v = target; v != -1; v = parents[v]) {
+				ids[--length] = v;
+			}
+			return ids;
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package com.saimaddhi.graph;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+/**
+ * A dense n by n matrix of distances between the vertices of a snapshot, stored row by row either in an int array or,
+ * when it is too big for the heap, in a memory mapped file. Distances that are unreachable, or at least INF, read as
+ * INF
+ * @author saimaddhi
+ *
+ */
+public class DistanceMatrix implements Closeable {
+	/**
+	 * The distance of unreachable pairs, small enough that two of them add up without overflowing
+	 */
+	public static final int INF = Integer.MAX_VALUE / 2;
+	/**
+	 * The most bytes in one mapped segment
+	 */
+	private static final long SEGMENT_BYTES = 1L << 30;
+	/**
+	 * The snapshot whose distances are stored
+	 */
+	private CsrGraph graph;
+	/**
+	 * The number of rows and columns
+	 */
+	private int n;
+	/**
+	 * The matrix when it is kept on the heap, otherwise null
+	 */
+	private int[] values;
+	/**
+	 * The file the matrix is mapped from, otherwise null
+	 */
+	private FileChannel channel;
+	/**
+	 * The mapped segments of whole rows
+	 */
+	private IntBuffer[] segments;
+	/**
+	 * The number of rows in each mapped segment
+	 */
+	private int rowsPerSegment;
+	/**
+	 * Constructor for a matrix on the heap with every distance INF
+	 * @param graph the snapshot
+	 */
+	DistanceMatrix(CsrGraph graph) {
+		this.graph = graph;
+		this.n = graph.vertexCount();
+		if((long) n * n > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException(n + " vertices need a file backed distance matrix");
+		}
+		this.values = new int[n * n];
+		Arrays.fill(values, INF);
+	}
+	/**
+	 * Constructor for a matrix mapped from the specified file with every distance INF, the file is replaced
+	 * @param graph the snapshot
+	 * @param file the file
+	 * @throws IOException if the file cannot be created or mapped
+	 */
+	DistanceMatrix(CsrGraph graph, Path file) throws IOException {
+		this.graph = graph;
+		this.n = graph.vertexCount();
+		this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+		long rowBytes = 4L * Math.max(n, 1);
+		this.rowsPerSegment = (int) Math.max(1, Math.min(n, SEGMENT_BYTES / rowBytes));
+		int count = (n + rowsPerSegment - 1) / rowsPerSegment;
+		this.segments = new IntBuffer[count];
+		int[] row = new int[n];
+		Arrays.fill(row, INF);
+		for(int s = 0; s < count; s++) {
+			int rows = Math.min(rowsPerSegment, n - s * rowsPerSegment);
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, s * rowsPerSegment * rowBytes,
+					rows * rowBytes);
+			segments[s] = mapped.order(ByteOrder.nativeOrder()).asIntBuffer();
+			for(int r = 0; r < rows; r++) {
+				segments[s].put(row);
+			}
+		}
+	}
+	/**
+	 * Getter for the snapshot whose distances are stored
+	 * @return the snapshot
+	 */
+	public CsrGraph getGraph() {
+		return graph;
+	}
+	/**
+	 * Getter for the number of rows and columns
+	 * @return the number of vertices
+	 */
+	public int size() {
+		return n;
+	}
+	/**
+	 * Returns the distance between two vertices
+	 * @param from the dense id of one vertex
+	 * @param to the dense id of the other vertex
+	 * @return the distance, or INF if it cannot be reached
+	 */
+	public int distance(int from, int to) {
+		if(values != null) return values[from * n + to];
+		return segments[from / rowsPerSegment].get((from % rowsPerSegment) * n + to);
+	}
+	/**
+	 * Returns the distance between the vertices with the specified labels
+	 * @param from the label of one vertex
+	 * @param to the label of the other vertex
+	 * @return the distance, or INF if it cannot be reached or either vertex does not exist
+	 */
+	public int distance(String from, String to) {
+		int a = graph.indexOf(from);
+		int b = graph.indexOf(to);
+		return (a < 0 || b < 0) ? INF : distance(a, b);
+	}
+	/**
+	 * Getter for the matrix when it is kept on the heap, row by row. The array is shared, not copied
+	 * @return the matrix, or null if it is mapped from a file
+	 */
+	public int[] getMatrix() {
+		return values;
+	}
+	/**
+	 * Lowers the distance between two vertices if the new one is smaller
+	 * @param from the dense id of one vertex
+	 * @param to the dense id of the other vertex
+	 * @param distance the new distance
+	 */
+	void lower(int from, int to, int distance) {
+		if(distance < distance(from, to)) {
+			if(values != null) {
+				values[from * n + to] = distance;
+			} else {
+				segments[from / rowsPerSegment].put((from % rowsPerSegment) * n + to, distance);
+			}
+		}
+	}
+	/**
+	 * Copies a square tile into the rows of the array, padding the part outside the matrix with INF
+	 * @param row the first row of the tile
+	 * @param column the first column of the tile
+	 * @param tile the rows of the tile
+	 */
+	void readTile(int row, int column, int[][] tile) {
+		int size = tile.length;
+		int width = Math.min(size, n - column);
+		for(int r = 0; r < size; r++) {
+			if(row + r < n) {
+				if(values != null) {
+					System.arraycopy(values, (row + r) * n + column, tile[r], 0, width);
+				} else {
+					IntBuffer segment = segments[(row + r) / rowsPerSegment].duplicate();
+					segment.position(((row + r) % rowsPerSegment) * n + column);
+					segment.get(tile[r], 0, width);
+				}
+				Arrays.fill(tile[r], width, size, INF);
+			} else {
+				Arrays.fill(tile[r], INF);
+			}
+		}
+	}
+	/**
+	 * Copies the part of a tile inside the matrix back
+	 * @param row the first row of the tile
+	 * @param column the first column of the tile
+	 * @param tile the rows of the tile
+	 */
+	void writeTile(int row, int column, int[][] tile) {
+		int width = Math.min(tile.length, n - column);
+		for(int r = 0; r < tile.length && row + r < n; r++) {
+			if(values != null) {
+				System.arraycopy(tile[r], 0, values, (row + r) * n + column, width);
+			} else {
+				IntBuffer segment = segments[(row + r) / rowsPerSegment].duplicate();
+				segment.position(((row + r) % rowsPerSegment) * n + column);
+				segment.put(tile[r], 0, width);
+			}
+		}
+	}
+	/**
+	 * Closes the file the matrix is mapped from, if any. The mapping itself is released once it is garbage collected
+	 * @throws IOException if the file cannot be closed
+	 */
+	public void close() throws IOException {
+		if(channel != null) channel.close();
+	}
+}
@@ -0,0 +1,390 @@
+package com.saimaddhi.graph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.TreeSet;
+
+import com.saimaddhi.graph.primitive.IntList;
+/**
+ * A minimum spanning forest that follows the changes of a graph instead of being recomputed. The forest is kept in a
+ * link-cut tree where every tree edge is a node between its two vertices:
+ * <ul>
+ * <li>an added edge joins two trees, or replaces the heaviest edge on the cycle it closes if it is lighter</li>
+ * <li>a removed tree edge is cut out and the lightest other edge that joins the two halves takes its place</li>
+ * </ul>
+ * Insertions take amortized logarithmic time. Deletions of tree edges search both halves breadth first in lockstep
+ * and stop as soon as one of them is exhausted, then take the lightest non tree edge leaving that half, so the cost is
+ * bounded by the smaller half and the edges incident to it. Ties in weight are broken by the order the edges were
+ * added in. Changing the weight or the vertices of an edge in place is not seen by the forest
+ * @author saimaddhi
+ *
+ */
+public class DynamicMst implements GraphListener {
+	/**
+	 * Orders entries by weight and then by the order they were added in
+	 */
+	private static final Comparator<Entry> ORDER = (a, b) -> (a.weight != b.weight)
+			? Integer.compare(a.weight, b.weight) : Long.compare(a.rank, b.rank);
+	/**
+	 * The forest
+	 */
+	private LinkCutTree forest;
+	/**
+	 * The node of each vertex keyed by vertex id, -1 for ids without a node
+	 */
+	private IntList vertexNodes;
+	/**
+	 * The entry of every edge of the graph
+	 */
+	private IdentityHashMap<Edge, Entry> entries;
+	/**
+	 * The entries of the edges part of the forest
+	 */
+	private TreeSet<Entry> tree;
+	/**
+	 * The entries of the edges incident to each vertex keyed by vertex id, apart from self loops
+	 */
+	private ArrayList<ArrayList<Entry>> incident;
+	/**
+	 * The search each vertex id was last reached in, stamped so a search does not have to clear the previous one
+	 */
+	private int[] marks;
+	/**
+	 * The stamp of the last search
+	 */
+	private int epoch;
+	/**
+	 * The entry of each edge node of the forest, indexed by node
+	 */
+	private ArrayList<Entry> nodeEntries;
+	/**
+	 * The rank given to the next added edge
+	 */
+	private long nextRank;
+	/**
+	 * The total weight of the forest
+	 */
+	private long totalWeight;
+	/**
+	 * Constructor that builds the minimum spanning forest of the specified graph and keeps it up to date from then on
+	 * @param graph the graph
+	 */
+	public DynamicMst(Graph graph) {
+		forest = new LinkCutTree();
+		vertexNodes = new IntList();
+		entries = new IdentityHashMap<Edge, Entry>();
+		tree = new TreeSet<Entry>(ORDER);
+		incident = new ArrayList<ArrayList<Entry>>();
+		marks = new int[16];
+		epoch = 0;
+		nodeEntries = new ArrayList<Entry>();
+		nextRank = 0;
+		totalWeight = 0;
+		for(Vertex vertex : graph.getVertices().values()) {
+			vertexAdded(vertex);
+		}
+		
+		//Start from the forest of a full run, which breaks ties by edge list position just like the ranks do
+		for(Edge edge : graph.getEdges()) {
+			entries.put(edge, new Entry(edge, nextRank++));
+		}
+		for(Edge edge : graph.minimumSpanningTree()) {
+			Entry entry = entries.get(edge);
+			link(entry, node(edge.getStart()), node(edge.getEnd()));
+		}
+		for(Edge edge : graph.getEdges()) {
+			if(edge.getStart() != edge.getEnd()) attach(entries.get(edge));
+		}
+		graph.addListener(this);
+	}
+	/**
+	 * Returns the edges of the minimum spanning forest in order of weight
+	 * @return the list of edges part of the mst
+	 */
+	public ArrayList<Edge> getTree() {
+		ArrayList<Edge> result = new ArrayList<Edge>(tree.size());
+		for(Entry entry : tree) {
+			result.add(entry.edge);
+		}
+		return result;
+	}
+	/**
+	 * Getter for the total weight of the minimum spanning forest
+	 * @return the total weight
+	 */
+	public long getTotalWeight() {
+		return totalWeight;
+	}
+	/**
+	 * Returns true if the specified edge is part of the minimum spanning forest
+	 * @param edge the edge
+	 * @return true if the edge is a tree edge
+	 */
+	public boolean contains(Edge edge) {
+		Entry entry = entries.get(edge);
+		return entry != null && entry.node >= 0;
+	}
+	/**
+	 * Gives the new vertex its own tree
+	 * @param vertex the new vertex
+	 */
+	public void vertexAdded(Vertex vertex) {
+		int id = vertex.getId();
+		while(vertexNodes.size() <= id) {
+			vertexNodes.add(-1);
+			incident.add(null);
+		}
+		if(vertexNodes.get(id) < 0) vertexNodes.set(id, forest.addNode());
+	}
+	/**
+	 * Frees the node of the removed vertex, which has no edges left
+	 * @param vertex the removed vertex
+	 */
+	public void vertexRemoved(Vertex vertex) {
+		int id = vertex.getId();
+		if(id < vertexNodes.size() && vertexNodes.get(id) >= 0) {
+			forest.removeNode(vertexNodes.get(id));
+			vertexNodes.set(id, -1);
+			incident.set(id, null);
+		}
+	}
+	/**
+	 * Adds the new edge to the forest if it joins two trees or is lighter than the heaviest edge on the cycle it closes
+	 * @param edge the new edge
+	 */
+	public void edgeAdded(Edge edge) {
+		Entry entry = new Entry(edge, nextRank++);
+		entries.put(edge, entry);
+		if(edge.getStart() == edge.getEnd()) return;
+		int u = node(edge.getStart());
+		int v = node(edge.getEnd());
+		attach(entry);
+		if(!forest.connected(u, v)) {
+			link(entry, u, v);
+			return;
+		}
+		int heaviest = forest.pathMax(u, v);
+		Entry replaced = nodeEntries.get(heaviest);
+		if(ORDER.compare(entry, replaced) < 0) {
+			cut(replaced);
+			link(entry, u, v);
+		}
+	}
+	/**
+	 * Removes the edge, replacing it with the lightest edge that joins the two halves if it was a tree edge
+	 * @param edge the removed edge
+	 */
+	public void edgeRemoved(Edge edge) {
+		Entry entry = entries.remove(edge);
+		if(entry == null || edge.getStart() == edge.getEnd()) return;
+		detach(entry);
+		if(entry.node < 0) return;
+		cut(entry);
+		Entry replacement = replacement(edge.getStart().getId(), edge.getEnd().getId());
+		if(replacement != null) link(replacement, node(replacement.edge.getStart()), node(replacement.edge.getEnd()));
+	}
+	/**
+	 * Finds the lightest non tree edge between the two halves of a tree that was just cut in two. Both halves are
+	 * searched breadth first one vertex at a time, and only the half that runs out first has its edges scanned
+	 * @param a the vertex id on one side of the cut
+	 * @param b the vertex id on the other side of the cut
+	 * @return the entry of the lightest edge joining the halves, null if there is none
+	 */
+	private Entry replacement(int a, int b) {
+		if(marks.length < incident.size()) marks = new int[Math.max(incident.size(), marks.length * 2)];
+		if(epoch >= Integer.MAX_VALUE - 1) {
+			Arrays.fill(marks, 0);
+			epoch = 0;
+		}
+		int markA = ++epoch;
+		int markB = ++epoch;
+		IntList sideA = new IntList();
+		IntList sideB = new IntList();
+		sideA.add(a);
+		marks[a] = markA;
+		sideB.add(b);
+		marks[b] = markB;
+		int headA = 0;
+		int headB = 0;
+		while(true) {
+			if(headA == sideA.size()) return lightest(sideA, markA);
+			reach(sideA.get(headA++), markA, sideA);
+			if(headB == sideB.size()) return lightest(sideB, markB);
+			reach(sideB.get(headB++), markB, sideB);
+		}
+	}
+	/**
+	 * Marks and queues the neighbors of the vertex over tree edges that the search has not reached yet
+	 * @param id the vertex id
+	 * @param mark the stamp of the search
+	 * @param side the queue of the search
+	 */
+	private void reach(int id, int mark, IntList side) {
+		ArrayList<Entry> list = incident.get(id);
+		for(int i = 0; i < list.size(); i++) {
+			Entry entry = list.get(i);
+			if(entry.node < 0) continue;
+			int other = other(entry, id);
+			if(marks[other] != mark) {
+				marks[other] = mark;
+				side.add(other);
+			}
+		}
+	}
+	/**
+	 * Returns the lightest non tree edge leaving a fully searched half
+	 * @param side the vertex ids of the half
+	 * @param mark the stamp of the half's vertices
+	 * @return the entry of the lightest edge, null if there is none
+	 */
+	private Entry lightest(IntList side, int mark) {
+		Entry best = null;
+		for(int s = 0; s < side.size(); s++) {
+			int id = side.get(s);
+			ArrayList<Entry> list = incident.get(id);
+			for(int i = 0; i < list.size(); i++) {
+				Entry entry = list.get(i);
+				if(entry.node >= 0 || marks[other(entry, id)] == mark) continue;
+				if(best == null || ORDER.compare(entry, best) < 0) best = entry;
+			}
+		}
+		return best;
+	}
+	/**
+	 * Returns the id of the vertex at the other end of the entry's edge
+	 * @param entry the entry
+	 * @param id the vertex id at one end
+	 * @return the vertex id at the other end
+	 */
+	private static int other(Entry entry, int id) {
+		int start = entry.edge.getStart().getId();
+		return start == id ? entry.edge.getEnd().getId() : start;
+	}
+	/**
+	 * Adds the entry to the incidence lists of both of its vertices
+	 * @param entry the entry of an edge that is not a self loop
+	 */
+	private void attach(Entry entry) {
+		entry.startSlot = add(entry.edge.getStart().getId(), entry);
+		entry.endSlot = add(entry.edge.getEnd().getId(), entry);
+	}
+	/**
+	 * Adds the entry to the incidence list of the vertex id
+	 * @param id the vertex id
+	 * @param entry the entry
+	 * @return the slot of the entry in the list
+	 */
+	private int add(int id, Entry entry) {
+		ArrayList<Entry> list = incident.get(id);
+		if(list == null) {
+			list = new ArrayList<Entry>(2);
+			incident.set(id, list);
+		}
+		list.add(entry);
+		return list.size() - 1;
+	}
+	/**
+	 * Removes the entry from the incidence lists of both of its vertices
+	 * @param entry the entry of an edge that is not a self loop
+	 */
+	private void detach(Entry entry) {
+		remove(entry.edge.getStart().getId(), entry.startSlot);
+		remove(entry.edge.getEnd().getId(), entry.endSlot);
+	}
+	/**
+	 * Removes the entry at the slot of the vertex id's incidence list by moving the last entry into it
+	 * @param id the vertex id
+	 * @param slot the slot
+	 */
+	private void remove(int id, int slot) {
+		ArrayList<Entry> list = incident.get(id);
+		Entry last = list.remove(list.size() - 1);
+		if(slot == list.size()) return;
+		list.set(slot, last);
+		if(last.edge.getStart().getId() == id) {
+			last.startSlot = slot;
+		} else {
+			last.endSlot = slot;
+		}
+	}
+	/**
+	 * Returns the forest node of the specified vertex, adding one if the vertex has none
+	 * @param vertex the vertex
+	 * @return the node
+	 */
+	private int node(Vertex vertex) {
+		vertexAdded(vertex);
+		return vertexNodes.get(vertex.getId());
+	}
+	/**
+	 * Adds the edge of the entry to the forest between the two vertex nodes
+	 * @param entry the entry
+	 * @param u the node of one vertex
+	 * @param v the node of the other vertex
+	 */
+	private void link(Entry entry, int u, int v) {
+		entry.node = forest.addNode(entry.weight, entry.rank);
+		while(nodeEntries.size() <= entry.node) {
+			nodeEntries.add(null);
+		}
+		nodeEntries.set(entry.node, entry);
+		forest.link(u, entry.node);
+		forest.link(entry.node, v);
+		tree.add(entry);
+		totalWeight += entry.weight;
+	}
+	/**
+	 * Takes the edge of the entry out of the forest
+	 * @param entry the entry of a tree edge
+	 */
+	private void cut(Entry entry) {
+		forest.cut(node(entry.edge.getStart()), entry.node);
+		forest.cut(entry.node, node(entry.edge.getEnd()));
+		forest.removeNode(entry.node);
+		nodeEntries.set(entry.node, null);
+		entry.node = -1;
+		tree.remove(entry);
+		totalWeight -= entry.weight;
+	}
+	/**
+	 * What the forest knows about one edge of the graph
+	 */
+	private static class Entry {
+		/**
+		 * The edge
+		 */
+		private final Edge edge;
+		/**
+		 * The weight of the edge when it was added
+		 */
+		private final int weight;
+		/**
+		 * The order the edge was added in, breaking ties in weight
+		 */
+		private final long rank;
+		/**
+		 * The forest node of the edge, -1 if it is not a tree edge
+		 */
+		private int node;
+		/**
+		 * The slot of the entry in the incidence list of the edge's start vertex
+		 */
+		private int startSlot;
+		/**
+		 * The slot of the entry in the incidence list of the edge's end vertex
+		 */
+		private int endSlot;
+		/**
+		 * Constructor for the entry of a newly added edge
+		 * @param edge the edge
+		 * @param rank the order the edge was added in
+		 */
+		private Entry(Edge edge, long rank) {
+			this.edge = edge;
+			this.weight = edge.getWeight();
+			this.rank = rank;
+			this.node = -1;
+		}
+	}
+}
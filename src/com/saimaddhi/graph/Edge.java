@@ -6,7 +6,7 @@ import edu.princeton.cs.algs4.StdDraw;
  * @author saimaddhi
  *
  */
-public class Edge implements Comparable {
+public class Edge implements Comparable<Edge> {
 	/**
 	 * The Vertex the edge starts at
 	 */
@@ -19,6 +19,18 @@ public class Edge implements Comparable {
 	 * The weight of this edge
 	 */
 	private int weight;
+	/**
+	 * The position of this edge in its graph's edge list, or -1 if it is not part of a graph
+	 */
+	private int position;
+	/**
+	 * The index of this edge's record in its graph's version log, or -1 if the graph keeps no versions
+	 */
+	private int record;
+	/**
+	 * The next edge between the same two vertices in its graph's edge index, or null if there is none
+	 */
+	private Edge duplicate;
 	/**
 	 * Constructor that initializes the edge with a start vertex, end vertex, and a specified weight
 	 * @param start the start vertex
@@ -29,12 +41,14 @@ public class Edge implements Comparable {
 		this.start = start;
 		this.end = end;
 		this.weight = weight;
+		this.position = -1;
+		this.record = -1;
 	}
 	/**
-	 * This is the compare to method that allows the edges to be sorted easily
+	 * This is the compare to method that allows the edges to be sorted easily by weight
 	 */
-	public int compareTo(Object other) {
-		return this.weight - ((Edge)other).weight;
+	public int compareTo(Edge other) {
+		return Integer.compare(this.weight, other.weight);
 	}
 	/**
 	 * This method returns the start vertex of the edge
@@ -90,6 +104,54 @@ public class Edge implements Comparable {
 	public boolean equals(Object e) {
 		return (start.equals(((Edge) e).start)) && (end.equals(((Edge) e).end));
 	}
+	/**
+	 * The hash code for this class that is consistent with equals
+	 */
+	public int hashCode() {
+		return 31 * start.hashCode() + end.hashCode();
+	}
+	/**
+	 * Getter for the position of this edge in its graph's edge list
+	 * @return the position
+	 */
+	int getPosition() {
+		return position;
+	}
+	/**
+	 * Setter for the position of this edge in its graph's edge list
+	 * @param position the new position
+	 */
+	void setPosition(int position) {
+		this.position = position;
+	}
+	/**
+	 * Getter for the index of this edge's record in its graph's version log
+	 * @return the record index
+	 */
+	int getRecord() {
+		return record;
+	}
+	/**
+	 * Setter for the index of this edge's record in its graph's version log
+	 * @param record the new record index
+	 */
+	void setRecord(int record) {
+		this.record = record;
+	}
+	/**
+	 * Getter for the next edge between the same two vertices in its graph's edge index
+	 * @return the next duplicate, or null
+	 */
+	Edge getDuplicate() {
+		return duplicate;
+	}
+	/**
+	 * Setter for the next edge between the same two vertices in its graph's edge index
+	 * @param duplicate the new next duplicate
+	 */
+	void setDuplicate(Edge duplicate) {
+		this.duplicate = duplicate;
+	}
 	/**
 	 * The draw method for this edge class that draws a line from start to end
 	 */
@@ -0,0 +1,161 @@
+package com.saimaddhi.graph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+/**
+ * A columnar batch of weighted edges for {@link Graph#addEdges(EdgeBatch)} and {@link Graph#removeEdges(EdgeBatch)}.
+ * Each distinct label is stored once and given a batch local id, and the edges are three parallel int arrays of start
+ * id, end id and weight
+ * @author saimaddhi
+ *
+ */
+public class EdgeBatch {
+	/**
+	 * The distinct labels indexed by batch local id
+	 */
+	private ArrayList<String> labels;
+	/**
+	 * The batch local ids keyed by label, null for batches wrapped around existing columns
+	 */
+	private HashMap<String, Integer> ids;
+	/**
+	 * The start id of each edge
+	 */
+	private int[] starts;
+	/**
+	 * The end id of each edge
+	 */
+	private int[] ends;
+	/**
+	 * The weight of each edge
+	 */
+	private int[] weights;
+	/**
+	 * The number of edges
+	 */
+	private int size;
+	/**
+	 * The default constructor for an empty batch
+	 */
+	public EdgeBatch() {
+		this(16);
+	}
+	/**
+	 * Constructor for an empty batch presized for the specified number of edges
+	 * @param capacity the number of edges
+	 */
+	public EdgeBatch(int capacity) {
+		labels = new ArrayList<String>();
+		ids = new HashMap<String, Integer>();
+		starts = new int[Math.max(capacity, 1)];
+		ends = new int[starts.length];
+		weights = new int[starts.length];
+	}
+	/**
+	 * Constructor that wraps existing columns without copying them
+	 * @param labels the distinct labels indexed by batch local id
+	 * @param starts the start id of each edge
+	 * @param ends the end id of each edge
+	 * @param weights the weight of each edge
+	 * @param size the number of edges
+	 */
+	EdgeBatch(ArrayList<String> labels, int[] starts, int[] ends, int[] weights, int size) {
+		this.labels = labels;
+		this.starts = starts;
+		this.ends = ends;
+		this.weights = weights;
+		this.size = size;
+	}
+	/**
+	 * Returns the batch local id of the specified label, giving it the next id if it is new
+	 * @param label the label
+	 * @return the batch local id
+	 */
+	public int label(String label) {
+		if(ids == null) {
+			ids = new HashMap<String, Integer>(labels.size() * 2);
+			for(int i = 0; i < labels.size(); i++) {
+				ids.put(labels.get(i), i);
+			}
+		}
+		Integer id = ids.get(label);
+		if(id == null) {
+			id = labels.size();
+			labels.add(label);
+			ids.put(label, id);
+		}
+		return id;
+	}
+	/**
+	 * Adds an edge between the two labels
+	 * @param startLabel the start vertex name
+	 * @param endLabel the end vertex name
+	 * @param weight the weight of the edge
+	 */
+	public void add(String startLabel, String endLabel, int weight) {
+		add(label(startLabel), label(endLabel), weight);
+	}
+	/**
+	 * Adds an edge between two labels given by their batch local ids
+	 * @param start the start id
+	 * @param end the end id
+	 * @param weight the weight of the edge
+	 * @throws IllegalArgumentException if either id has no label
+	 */
+	public void add(int start, int end, int weight) {
+		int missing = (start < 0 || start >= labels.size()) ? start : end;
+		if(missing < 0 || missing >= labels.size()) throw new IllegalArgumentException("No label with id " + missing);
+		if(size == starts.length) {
+			starts = Arrays.copyOf(starts, size * 2);
+			ends = Arrays.copyOf(ends, size * 2);
+			weights = Arrays.copyOf(weights, size * 2);
+		}
+		starts[size] = start;
+		ends[size] = end;
+		weights[size] = weight;
+		size++;
+	}
+	/**
+	 * Getter for the number of edges
+	 * @return the number of edges
+	 */
+	public int size() {
+		return size;
+	}
+	/**
+	 * Removes every edge and label but keeps the capacity
+	 */
+	public void clear() {
+		labels.clear();
+		if(ids != null) ids.clear();
+		size = 0;
+	}
+	/**
+	 * Getter for the distinct labels indexed by batch local id
+	 * @return the labels
+	 */
+	ArrayList<String> getLabels() {
+		return labels;
+	}
+	/**
+	 * Getter for the start id of each edge
+	 * @return the start ids
+	 */
+	int[] getStarts() {
+		return starts;
+	}
+	/**
+	 * Getter for the end id of each edge
+	 * @return the end ids
+	 */
+	int[] getEnds() {
+		return ends;
+	}
+	/**
+	 * Getter for the weight of each edge
+	 * @return the weights
+	 */
+	int[] getWeights() {
+		return weights;
+	}
+}
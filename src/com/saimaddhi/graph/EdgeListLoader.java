@@ -0,0 +1,439 @@
+package com.saimaddhi.graph;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import com.saimaddhi.graph.generator.EdgeSink;
+/**
+ * Loads edge list files with one "start end weight" edge per line. The file is memory mapped, split into newline
+ * aligned chunks and parsed straight from the bytes on the common fork join pool, then the edges are added to the
+ * graph in file order
+ * @author saimaddhi
+ *
+ */
+public class EdgeListLoader {
+	/**
+	 * The smallest chunk worth handing to its own task
+	 */
+	private static final long MIN_CHUNK = 1 << 20;
+	/**
+	 * The largest chunk, which keeps every chunk within a single mapped buffer
+	 */
+	private static final long MAX_CHUNK = 1 << 30;
+	/**
+	 * The most malformed lines listed in the error message
+	 */
+	private static final int MAX_REPORTED = 20;
+	/**
+	 * The size of the read buffer of a streamed file
+	 */
+	private static final int STREAM_BUFFER = 1 << 20;
+	/**
+	 * This class only has static methods
+	 */
+	private EdgeListLoader() {
+	}
+	/**
+	 * Adds the edges of the specified file to the graph. Nothing is added if any line is malformed
+	 * @param graph the graph to add the edges to
+	 * @param file the edge list file
+	 * @throws IOException if the file cannot be read or has malformed lines, which are listed with their line numbers
+	 */
+	public static void load(Graph graph, Path file) throws IOException {
+		Chunk[] chunks;
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long[] bounds = split(channel);
+			try {
+				chunks = IntStream.range(0, bounds.length - 1).parallel()
+						.mapToObj(i -> parse(channel, bounds[i], bounds[i + 1]))
+						.toArray(Chunk[]::new);
+			} catch(UncheckedIOException e) {
+				throw e.getCause();
+			}
+		}
+		
+		checkErrors(file, chunks);
+		
+		for(Chunk chunk : chunks) {
+			graph.addEdges(new EdgeBatch(chunk.labels, chunk.starts, chunk.ends, chunk.weights, chunk.count));
+		}
+	}
+	/**
+	 * Reads the specified file sequentially in bounded memory and hands every edge to the sink as it is parsed. The
+	 * vertices are given the ids 0 to n-1 in order of first appearance
+	 * @param file the edge list file
+	 * @param sink receives the edges as ids of the returned labels, in file order
+	 * @return the labels indexed by id
+	 * @throws IOException if the file cannot be read, the sink fails or the file has malformed lines, in which case the
+	 * sink may already have received some of the edges
+	 */
+	static ArrayList<String> stream(Path file, EdgeSink sink) throws IOException {
+		Chunk chunk = new Chunk();
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate(STREAM_BUFFER);
+			boolean eof = false;
+			while(!eof) {
+				eof = channel.read(buffer) < 0;
+				int length = buffer.position();
+				if(!eof) {
+					while(length > 0 && buffer.get(length - 1) != '\n') {
+						length--;
+					}
+					if(length == 0) {
+						//A line longer than the buffer
+						if(!buffer.hasRemaining()) buffer = grow(buffer);
+						continue;
+					}
+				}
+				parseLines(chunk, buffer, length);
+				for(int i = 0; i < chunk.count; i++) {
+					sink.accept(chunk.starts[i], chunk.ends[i], chunk.weights[i]);
+				}
+				chunk.count = 0;
+				buffer.limit(buffer.position());
+				buffer.position(length);
+				buffer.compact();
+			}
+		}
+		checkErrors(file, chunk);
+		return chunk.labels;
+	}
+	/**
+	 * Doubles the capacity of a full buffer
+	 * @param buffer the buffer
+	 * @return the new buffer with the same contents
+	 * @throws IOException if the buffer cannot grow any further
+	 */
+	private static ByteBuffer grow(ByteBuffer buffer) throws IOException {
+		if(buffer.capacity() > MAX_CHUNK / 2) throw new IOException("Line longer than 1GB");
+		ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+		buffer.flip();
+		bigger.put(buffer);
+		return bigger;
+	}
+	/**
+	 * Throws an exception listing the malformed lines of the chunks if there are any
+	 * @param file the file the chunks were parsed from, in order
+	 * @param chunks the chunks
+	 * @throws IOException if any line is malformed, listing them with their line numbers in the whole file
+	 */
+	private static void checkErrors(Path file, Chunk... chunks) throws IOException {
+		StringBuilder errors = new StringBuilder();
+		int reported = 0;
+		int total = 0;
+		long firstLine = 1;
+		for(Chunk chunk : chunks) {
+			for(int i = 0; i < chunk.errorLines.size(); i++) {
+				if(reported < MAX_REPORTED) {
+					errors.append("\nline ").append(firstLine + chunk.errorLines.get(i)).append(": ")
+							.append(chunk.errorMessages.get(i));
+					reported++;
+				}
+				total++;
+			}
+			firstLine += chunk.lines;
+		}
+		if(total > 0) {
+			throw new IOException(total + " malformed line(s) in " + file + errors
+					+ ((total > reported) ? "\n..." : ""));
+		}
+	}
+	/**
+	 * Splits the file into chunks that each end right after a newline
+	 * @param channel the file
+	 * @return the chunk boundaries, chunk i covers bounds[i] up to bounds[i+1]
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long[] split(FileChannel channel) throws IOException {
+		long size = channel.size();
+		int tasks = Runtime.getRuntime().availableProcessors() * 4;
+		long target = Math.min(MAX_CHUNK, Math.max(MIN_CHUNK, size / tasks));
+		long[] bounds = new long[16];
+		int count = 0;
+		bounds[count++] = 0;
+		ByteBuffer probe = ByteBuffer.allocate(4096);
+		long position = 0;
+		while(size - position > target) {
+			long cut = position + target;
+			long found = -1;
+			while(found < 0 && cut < size) {
+				probe.clear();
+				int read = channel.read(probe, cut);
+				for(int i = 0; i < read; i++) {
+					if(probe.get(i) == '\n') {
+						found = cut + i + 1;
+						break;
+					}
+				}
+				cut += read;
+			}
+			if(found < 0 || found >= size) break;
+			if(found - position > Integer.MAX_VALUE) throw new IOException("Line longer than 1GB at byte " + position);
+			if(count == bounds.length) bounds = Arrays.copyOf(bounds, count * 2);
+			bounds[count++] = found;
+			position = found;
+		}
+		if(count == bounds.length) bounds = Arrays.copyOf(bounds, count + 1);
+		bounds[count++] = size;
+		return Arrays.copyOf(bounds, count);
+	}
+	/**
+	 * Maps and parses one chunk of the file
+	 * @param channel the file
+	 * @param from the first byte of the chunk
+	 * @param to the byte after the chunk
+	 * @return the parsed chunk
+	 */
+	private static Chunk parse(FileChannel channel, long from, long to) {
+		MappedByteBuffer buffer;
+		try {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		Chunk chunk = new Chunk();
+		parseLines(chunk, buffer, (int) (to - from));
+		return chunk;
+	}
+	/**
+	 * Parses the lines at the start of the buffer into the chunk
+	 * @param chunk the chunk
+	 * @param buffer the bytes
+	 * @param length the number of bytes to parse, ending at a newline or at the end of the file
+	 */
+	private static void parseLines(Chunk chunk, ByteBuffer buffer, int length) {
+		int lineStart = 0;
+		while(lineStart < length) {
+			int lineEnd = lineStart;
+			while(lineEnd < length && buffer.get(lineEnd) != '\n') {
+				lineEnd++;
+			}
+			chunk.parseLine(buffer, lineStart, lineEnd);
+			chunk.lines++;
+			lineStart = lineEnd + 1;
+		}
+	}
+	/**
+	 * The parsed edges of one chunk, stored as columns of chunk local label ids
+	 */
+	private static class Chunk {
+		/**
+		 * The distinct labels of the chunk in order of appearance
+		 */
+		private ArrayList<String> labels = new ArrayList<String>();
+		/**
+		 * The label table that maps label bytes to their chunk local id
+		 */
+		private LabelTable table = new LabelTable();
+		/**
+		 * The start label ids
+		 */
+		private int[] starts = new int[1024];
+		/**
+		 * The end label ids
+		 */
+		private int[] ends = new int[1024];
+		/**
+		 * The weights
+		 */
+		private int[] weights = new int[1024];
+		/**
+		 * The number of parsed edges
+		 */
+		private int count;
+		/**
+		 * The number of lines in the chunk
+		 */
+		private long lines;
+		/**
+		 * The zero based line numbers of the malformed lines
+		 */
+		private ArrayList<Long> errorLines = new ArrayList<Long>();
+		/**
+		 * What is wrong with each malformed line
+		 */
+		private ArrayList<String> errorMessages = new ArrayList<String>();
+		/**
+		 * Parses the line between the specified positions, blank lines are skipped
+		 * @param buffer the chunk's bytes
+		 * @param from the first byte of the line
+		 * @param to the byte after the line, not counting the newline
+		 */
+		private void parseLine(ByteBuffer buffer, int from, int to) {
+			if(to > from && buffer.get(to - 1) == '\r') to--;
+			if(to == from) return;
+			int first = from;
+			while(first < to && buffer.get(first) != ' ') {
+				first++;
+			}
+			int last = to - 1;
+			while(last > first && buffer.get(last) != ' ') {
+				last--;
+			}
+			if(first == to || last == first) {
+				error("expected \"start end weight\"");
+				return;
+			}
+			if(first == from || last == first + 1) {
+				error("empty vertex label");
+				return;
+			}
+			long weight = 0;
+			boolean negative = false;
+			int i = last + 1;
+			if(i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+				negative = buffer.get(i) == '-';
+				i++;
+			}
+			if(i == to) {
+				error("missing weight");
+				return;
+			}
+			for(; i < to; i++) {
+				int digit = buffer.get(i) - '0';
+				if(digit < 0 || digit > 9) {
+					error("weight is not an integer");
+					return;
+				}
+				weight = weight * 10 + digit;
+				if(weight > (long) Integer.MAX_VALUE + 1) {
+					error("weight does not fit in an int");
+					return;
+				}
+			}
+			if(negative) weight = -weight;
+			if(weight > Integer.MAX_VALUE) {
+				error("weight does not fit in an int");
+				return;
+			}
+			if(count == starts.length) {
+				starts = Arrays.copyOf(starts, count * 2);
+				ends = Arrays.copyOf(ends, count * 2);
+				weights = Arrays.copyOf(weights, count * 2);
+			}
+			starts[count] = table.intern(buffer, from, first, labels);
+			ends[count] = table.intern(buffer, first + 1, last, labels);
+			weights[count] = (int) weight;
+			count++;
+		}
+		/**
+		 * Records that the current line is malformed
+		 * @param message what is wrong with the line
+		 */
+		private void error(String message) {
+			errorLines.add(lines);
+			errorMessages.add(message);
+		}
+	}
+	/**
+	 * An open addressing hash table from label bytes to chunk local label ids, so that a String is only made the first
+	 * time a label is seen in a chunk
+	 */
+	static class LabelTable {
+		/**
+		 * The label id plus one stored in each slot, 0 for empty slots
+		 */
+		private int[] slots = new int[1024];
+		/**
+		 * The hash of each label
+		 */
+		private int[] hashes = new int[512];
+		/**
+		 * Where each label starts in the arena
+		 */
+		private int[] starts = new int[512];
+		/**
+		 * The byte length of each label
+		 */
+		private int[] lengths = new int[512];
+		/**
+		 * The bytes of every label
+		 */
+		private byte[] arena = new byte[4096];
+		/**
+		 * The number of bytes used in the arena
+		 */
+		private int used;
+		/**
+		 * The number of labels
+		 */
+		private int size;
+		/**
+		 * Returns the id of the label between the specified positions, adding it to the labels list if it is new
+		 * @param buffer the bytes holding the label
+		 * @param from the first byte of the label
+		 * @param to the byte after the label
+		 * @param labels the labels in order of id
+		 * @return the id of the label
+		 */
+		int intern(ByteBuffer buffer, int from, int to, ArrayList<String> labels) {
+			int length = to - from;
+			int hash = 0;
+			for(int i = from; i < to; i++) {
+				hash = 31 * hash + buffer.get(i);
+			}
+			int mask = slots.length - 1;
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			while(slots[slot] != 0) {
+				int id = slots[slot] - 1;
+				if(hashes[id] == hash && lengths[id] == length && sameBytes(buffer, from, starts[id], length)) return id;
+				slot = (slot + 1) & mask;
+			}
+		
+			//New label
+			if(used + length > arena.length) arena = Arrays.copyOf(arena, Math.max(arena.length * 2, used + length));
+			for(int i = 0; i < length; i++) {
+				arena[used + i] = buffer.get(from + i);
+			}
+			if(size == hashes.length) {
+				hashes = Arrays.copyOf(hashes, size * 2);
+				starts = Arrays.copyOf(starts, size * 2);
+				lengths = Arrays.copyOf(lengths, size * 2);
+			}
+			hashes[size] = hash;
+			starts[size] = used;
+			lengths[size] = length;
+			labels.add(new String(arena, used, length, StandardCharsets.UTF_8));
+			used += length;
+			slots[slot] = ++size;
+			if(size * 2 > slots.length) rehash();
+			return size - 1;
+		}
+		/**
+		 * Returns true if the bytes in the buffer match the bytes in the arena
+		 * @param buffer the buffer
+		 * @param from the first byte in the buffer
+		 * @param start the first byte in the arena
+		 * @param length the number of bytes
+		 * @return true if they match
+		 */
+		private boolean sameBytes(ByteBuffer buffer, int from, int start, int length) {
+			for(int i = 0; i < length; i++) {
+				if(buffer.get(from + i) != arena[start + i]) return false;
+			}
+			return true;
+		}
+		/**
+		 * Doubles the number of slots
+		 */
+		private void rehash() {
+			slots = new int[slots.length * 2];
+			int mask = slots.length - 1;
+			for(int id = 0; id < size; id++) {
+				int slot = (hashes[id] ^ (hashes[id] >>> 16)) & mask;
+				while(slots[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				slots[slot] = id + 1;
+			}
+		}
+	}
+}
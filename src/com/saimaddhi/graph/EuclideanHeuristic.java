@@ -0,0 +1,78 @@
+package com.saimaddhi.graph;
+/**
+ * Estimates distances from the straight line distance between the vertices' coordinates, multiplied by a scale that
+ * converts coordinate units into weight units. The estimate is admissible when no edge is shorter in weight than its
+ * scaled length, which {@link #fit(CsrGraph)} guarantees
+ * @author saimaddhi
+ *
+ */
+public class EuclideanHeuristic implements Heuristic {
+	/**
+	 * The x coordinate of each vertex
+	 */
+	private double[] xs;
+	/**
+	 * The y coordinate of each vertex
+	 */
+	private double[] ys;
+	/**
+	 * The weight units per coordinate unit
+	 */
+	private double scale;
+	/**
+	 * Constructor that reads the coordinates of the snapshot's vertices
+	 * @param graph the snapshot
+	 * @param scale the weight units per coordinate unit
+	 */
+	public EuclideanHeuristic(CsrGraph graph, double scale) {
+		int n = graph.vertexCount();
+		this.xs = new double[n];
+		this.ys = new double[n];
+		this.scale = scale;
+		for(int v = 0; v < n; v++) {
+			xs[v] = graph.getVertex(v).xCoor();
+			ys[v] = graph.getVertex(v).yCoor();
+		}
+	}
+	/**
+	 * Returns the heuristic with the largest scale at which no edge is shorter in weight than its scaled length, which
+	 * makes the estimate admissible and consistent
+	 * @param graph the snapshot
+	 * @return the heuristic
+	 */
+	public static EuclideanHeuristic fit(CsrGraph graph) {
+		EuclideanHeuristic heuristic = new EuclideanHeuristic(graph, 0);
+		int[] starts = graph.getEdgeStarts();
+		int[] ends = graph.getEdgeEnds();
+		int[] weights = graph.getEdgeWeights();
+		double scale = Double.POSITIVE_INFINITY;
+		for(int e = 0; e < starts.length; e++) {
+			double length = heuristic.length(starts[e], ends[e]);
+			if(length > 0) scale = Math.min(scale, Math.max(0, weights[e]) / length);
+		}
+		heuristic.scale = Double.isInfinite(scale) ? 0 : scale;
+		return heuristic;
+	}
+	/**
+	 * Getter for the scale
+	 * @return the weight units per coordinate unit
+	 */
+	public double getScale() {
+		return scale;
+	}
+	/**
+	 * Returns the scaled straight line distance, rounded down
+	 */
+	public long estimate(int vertex, int target) {
+		return (long) (scale * length(vertex, target));
+	}
+	/**
+	 * Returns the straight line distance between two vertices
+	 * @param a one vertex
+	 * @param b the other vertex
+	 * @return the distance in coordinate units
+	 */
+	private double length(int a, int b) {
+		return Math.hypot(xs[a] - xs[b], ys[a] - ys[b]);
+	}
+}
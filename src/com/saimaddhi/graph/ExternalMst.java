@@ -0,0 +1,303 @@
+package com.saimaddhi.graph;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import com.saimaddhi.graph.generator.EdgeSink;
+import com.saimaddhi.graph.primitive.IndexedMinHeap;
+import com.saimaddhi.graph.primitive.RadixSort;
+/**
+ * Computes the minimum spanning forest of an edge list file that does not fit in memory. Only the vertex labels and a
+ * union-find over the vertex ids stay in memory:
+ * <ol>
+ * <li>the file is streamed and cut into runs of a bounded number of edges, each sorted by weight and written to a
+ * temporary file</li>
+ * <li>the runs are merged by weight, a bounded number of runs at a time</li>
+ * <li>Kruskal's algorithm consumes the merged stream and writes each tree edge to the output as it is found</li>
+ * </ol>
+ * Every line takes part, so when a pair of vertices is repeated the result can be lighter than the tree of
+ * {@link Graph#addEdgesFromFile(String)}, which keeps only the first edge of each pair. Ties in weight are broken by
+ * the position of the edge in the input
+ * @author saimaddhi
+ *
+ */
+public class ExternalMst {
+	/**
+	 * The memory given to the run buffers when no budget is specified
+	 */
+	public static final long DEFAULT_MEMORY = 256L << 20;
+	/**
+	 * The bytes of memory used per buffered edge at the peak of writing a run, three int columns, a long sort key and
+	 * the radix sort's scratch copy of the keys. Growing the columns never needs more than that
+	 */
+	private static final int BYTES_PER_EDGE = 28;
+	/**
+	 * The fewest edges per run
+	 */
+	private static final int MIN_RUN = 1 << 16;
+	/**
+	 * The most runs merged at once, more runs are merged in several passes
+	 */
+	private static final int MAX_FAN_IN = 256;
+	/**
+	 * The size of the buffer of every run file
+	 */
+	private static final int RUN_BUFFER = 1 << 16;
+	/**
+	 * This class only has static methods
+	 */
+	private ExternalMst() {
+	}
+	/**
+	 * Writes the minimum spanning forest of the input file to the output file, using the default temporary directory
+	 * and memory budget
+	 * @param input the edge list file, one "start end weight" edge per line
+	 * @param output the file the tree edges are written to in the same format, in order of weight
+	 * @return the number of tree edges written
+	 * @throws IOException if a file cannot be read or written or the input has malformed lines
+	 */
+	public static long minimumSpanningTree(Path input, Path output) throws IOException {
+		return minimumSpanningTree(input, output, null, DEFAULT_MEMORY);
+	}
+	/**
+	 * Writes the minimum spanning forest of the input file to the output file
+	 * @param input the edge list file, one "start end weight" edge per line
+	 * @param output the file the tree edges are written to in the same format, in order of weight
+	 * @param tempDir the directory of the run files, null for the default temporary directory
+	 * @param memory the bytes of memory the run buffers may use, not counting the vertex labels
+	 * @return the number of tree edges written
+	 * @throws IOException if a file cannot be read or written or the input has malformed lines
+	 */
+	public static long minimumSpanningTree(Path input, Path output, Path tempDir, long memory) throws IOException {
+		Path dir = (tempDir == null) ? Paths.get(System.getProperty("java.io.tmpdir")) : tempDir;
+		int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(MIN_RUN, memory / BYTES_PER_EDGE));
+		RunWriter runs = new RunWriter(dir, capacity);
+		try {
+			ArrayList<String> labels = EdgeListLoader.stream(input, runs);
+			runs.flush();
+			ArrayList<Path> files = new ArrayList<Path>(runs.files);
+			while(files.size() > MAX_FAN_IN) {
+				ArrayList<Path> merged = new ArrayList<Path>();
+				for(int i = 0; i < files.size(); i += MAX_FAN_IN) {
+					Path run = Files.createTempFile(dir, "mst-run", ".bin");
+					merged.add(run);
+					runs.files.add(run);
+					try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run),
+							RUN_BUFFER))) {
+						merge(files.subList(i, Math.min(files.size(), i + MAX_FAN_IN)),
+								(start, end, weight) -> writeRecord(out, start, end, weight), () -> false);
+					}
+				}
+				for(Path run : files) {
+					Files.deleteIfExists(run);
+				}
+				runs.files.subList(0, files.size()).clear();
+				files = merged;
+			}
+			
+			//Kruskal over the merged stream, which stops early once every vertex is in one tree
+			UnionFind components = new UnionFind(labels.size());
+			long[] written = new long[1];
+			try(BufferedWriter out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+				merge(files, (start, end, weight) -> {
+					if(components.union(start, end)) {
+						out.write(labels.get(start));
+						out.write(' ');
+						out.write(labels.get(end));
+						out.write(' ');
+						out.write(Integer.toString(weight));
+						out.write('\n');
+						written[0]++;
+					}
+				}, () -> components.count() == 1);
+			}
+			return written[0];
+		} finally {
+			for(Path run : runs.files) {
+				Files.deleteIfExists(run);
+			}
+		}
+	}
+	/**
+	 * Merges the sorted runs into one stream ordered by weight, ties go to the earlier run and then to the earlier
+	 * record of the run
+	 * @param files the run files in input order
+	 * @param sink receives the merged edges
+	 * @param done tells the merge to stop before the next edge
+	 * @throws IOException if a run cannot be read or the sink fails
+	 */
+	private static void merge(List<Path> files, EdgeSink sink, BooleanSupplier done) throws IOException {
+		DataInputStream[] inputs = new DataInputStream[files.size()];
+		long[] remaining = new long[files.size()];
+		int[] starts = new int[files.size()];
+		int[] ends = new int[files.size()];
+		IndexedMinHeap heap = new IndexedMinHeap(files.size());
+		try {
+			for(int run = 0; run < inputs.length; run++) {
+				inputs[run] = new DataInputStream(new BufferedInputStream(Files.newInputStream(files.get(run)),
+						RUN_BUFFER));
+				remaining[run] = Files.size(files.get(run)) / 12;
+				advance(inputs, remaining, starts, ends, heap, run);
+			}
+			while(!heap.isEmpty() && !done.getAsBoolean()) {
+				int weight = (int) (heap.peekKey() >> 32);
+				int run = heap.poll();
+				sink.accept(starts[run], ends[run], weight);
+				advance(inputs, remaining, starts, ends, heap, run);
+			}
+		} finally {
+			for(DataInputStream in : inputs) {
+				if(in != null) in.close();
+			}
+		}
+	}
+	/**
+	 * Reads the next record of a run into the merge heap if the run has one left
+	 * @param inputs the run streams
+	 * @param remaining the number of records left in each run
+	 * @param starts the start vertex of each run's current record
+	 * @param ends the end vertex of each run's current record
+	 * @param heap the merge heap keyed by weight and then run
+	 * @param run the run to advance
+	 * @throws IOException if the run cannot be read
+	 */
+	private static void advance(DataInputStream[] inputs, long[] remaining, int[] starts, int[] ends,
+			IndexedMinHeap heap, int run) throws IOException {
+		if(remaining[run] == 0) return;
+		remaining[run]--;
+		int weight = inputs[run].readInt();
+		starts[run] = inputs[run].readInt();
+		ends[run] = inputs[run].readInt();
+		heap.insert(run, ((long) weight << 32) | run);
+	}
+	/**
+	 * Writes one twelve byte run record
+	 * @param out the run file
+	 * @param start the start vertex id
+	 * @param end the end vertex id
+	 * @param weight the weight
+	 * @throws IOException if the run cannot be written
+	 */
+	private static void writeRecord(DataOutputStream out, int start, int end, int weight) throws IOException {
+		out.writeInt(weight);
+		out.writeInt(start);
+		out.writeInt(end);
+	}
+	/**
+	 * Buffers the streamed edges and writes them out as sorted runs
+	 */
+	private static class RunWriter implements EdgeSink {
+		/**
+		 * The directory of the run files
+		 */
+		private Path dir;
+		/**
+		 * The run files that have not been deleted yet, in the order they were written
+		 */
+		private ArrayList<Path> files;
+		/**
+		 * The start vertex ids of the buffered edges
+		 */
+		private int[] starts;
+		/**
+		 * The end vertex ids of the buffered edges
+		 */
+		private int[] ends;
+		/**
+		 * The weights of the buffered edges
+		 */
+		private int[] weights;
+		/**
+		 * The number of buffered edges
+		 */
+		private int count;
+		/**
+		 * The number of edges per run
+		 */
+		private int capacity;
+		/**
+		 * Constructor that buffers up to the specified number of edges per run
+		 * @param dir the directory of the run files
+		 * @param capacity the number of edges per run
+		 */
+		private RunWriter(Path dir, int capacity) {
+			this.dir = dir;
+			this.files = new ArrayList<Path>();
+			this.starts = new int[Math.min(capacity, MIN_RUN)];
+			this.ends = new int[starts.length];
+			this.weights = new int[starts.length];
+			this.capacity = capacity;
+			this.count = 0;
+		}
+		/**
+		 * Buffers one edge, writing a run once the buffer is full
+		 * @param start the start vertex id
+		 * @param end the end vertex id
+		 * @param weight the weight
+		 * @throws IOException if a run cannot be written
+		 */
+		public void accept(int start, int end, int weight) throws IOException {
+			if(count == starts.length) {
+				if(count == capacity) {
+					flush();
+				} else {
+					int size = (int) Math.min(capacity, 2L * count);
+					starts = Arrays.copyOf(starts, size);
+					ends = Arrays.copyOf(ends, size);
+					weights = Arrays.copyOf(weights, size);
+				}
+			}
+			starts[count] = start;
+			ends[count] = end;
+			weights[count] = weight;
+			count++;
+		}
+		/**
+		 * Sorts the buffered edges by weight and then by position and writes them as a run
+		 * @throws IOException if the run cannot be written
+		 */
+		private void flush() throws IOException {
+			if(count == 0) return;
+			long[] keys = new long[count];
+			for(int i = 0; i < count; i++) {
+				keys[i] = ((long) weights[i] << 32) | i;
+			}
+			RadixSort.sort(keys, 4);
+			Path run = Files.createTempFile(dir, "mst-run", ".bin");
+			files.add(run);
+			try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run),
+					RUN_BUFFER))) {
+				for(long key : keys) {
+					int i = (int) key;
+					writeRecord(out, starts[i], ends[i], weights[i]);
+				}
+			}
+			count = 0;
+		}
+	}
+	/**
+	 * Command line entry point
+	 * @param args the input file, the output file and optionally the memory budget in megabytes
+	 * @throws IOException if a file cannot be read or written
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length < 2) {
+			System.err.println("Usage: ExternalMst input output [memoryMB]");
+			return;
+		}
+		long memory = (args.length > 2) ? Long.parseLong(args[2]) << 20 : DEFAULT_MEMORY;
+		long edges = minimumSpanningTree(Paths.get(args[0]), Paths.get(args[1]), null, memory);
+		System.out.println(edges + " tree edges written to " + args[1]);
+	}
+}
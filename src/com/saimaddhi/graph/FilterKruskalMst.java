@@ -0,0 +1,126 @@
+package com.saimaddhi.graph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+/**
+ * Filter-Kruskal (Osipov, Sanders and Singler) over a CSR snapshot. The edges are split around a pivot like in
+ * quicksort and the light half is solved first, after which the heavy edges whose endpoints are already connected are
+ * filtered out before they are ever sorted. On sparse graphs most heavy edges are dropped this way. The partitioning and
+ * filtering run on the common fork join pool
+ * @author saimaddhi
+ *
+ */
+public class FilterKruskalMst {
+	/**
+	 * Ranges with fewer edges than this are sorted and scanned directly
+	 */
+	private static final int BASE = 1 << 14;
+	/**
+	 * The number of keys the pivot is the median of
+	 */
+	private static final int SAMPLES = 9;
+	/**
+	 * The snapshot
+	 */
+	private CsrGraph graph;
+	/**
+	 * The start vertex of each edge
+	 */
+	private int[] starts;
+	/**
+	 * The end vertex of each edge
+	 */
+	private int[] ends;
+	/**
+	 * The components joined by the tree so far
+	 */
+	private UnionFind components;
+	/**
+	 * The tree edges in order of weight
+	 */
+	private ArrayList<Edge> tree;
+	/**
+	 * Constructor for one run over the specified snapshot
+	 * @param graph the snapshot
+	 */
+	private FilterKruskalMst(CsrGraph graph) {
+		this.graph = graph;
+		this.starts = graph.getEdgeStarts();
+		this.ends = graph.getEdgeEnds();
+		this.components = new UnionFind(graph.vertexCount());
+		this.tree = new ArrayList<Edge>();
+	}
+	/**
+	 * Returns the edges of the minimum spanning forest of the snapshot. Edges are compared by weight and then by edge
+	 * id, so the result matches the other strategies
+	 * @param graph the snapshot
+	 * @return the list of edges part of the mst, in order of weight
+	 */
+	public static ArrayList<Edge> minimumSpanningTree(CsrGraph graph) {
+		FilterKruskalMst run = new FilterKruskalMst(graph);
+		int[] starts = run.starts;
+		int[] ends = run.ends;
+		int[] weights = graph.getEdgeWeights();
+		long[] keys = IntStream.range(0, graph.edgeCount()).parallel().filter(e -> starts[e] != ends[e])
+				.mapToLong(e -> ((long) weights[e] << 32) | e).toArray();
+		run.solve(keys);
+		return run.tree;
+	}
+	/**
+	 * Adds the tree edges among the specified edges, all of which are heavier than the edges solved before
+	 * @param keys the packed (weight, edge id) keys of the edges
+	 */
+	private void solve(long[] keys) {
+		if(done() || keys.length == 0) return;
+		if(keys.length < BASE) {
+			Arrays.sort(keys);
+			kruskal(keys);
+			return;
+		}
+		long pivot = pivot(keys);
+		long[] light = LongStream.of(keys).parallel().filter(k -> k < pivot).toArray();
+		long[] heavy = LongStream.of(keys).parallel().filter(k -> k >= pivot).toArray();
+		keys = null;
+		solve(light);
+		if(done()) return;
+		
+		//No merges happen while filtering, so the roots can be read from every thread
+		int[] s = starts;
+		int[] t = ends;
+		UnionFind c = components;
+		heavy = LongStream.of(heavy).parallel().filter(k -> c.root(s[(int) k]) != c.root(t[(int) k])).toArray();
+		solve(heavy);
+	}
+	/**
+	 * Adds the edges that join two components, in order
+	 * @param keys the sorted keys
+	 */
+	private void kruskal(long[] keys) {
+		for(int i = 0; i < keys.length && !done(); i++) {
+			int e = (int) keys[i];
+			if(components.union(starts[e], ends[e])) tree.add(graph.getEdge(e));
+		}
+	}
+	/**
+	 * Returns true once the forest is a spanning tree, when no later edge can be added
+	 * @return true if every vertex is in one tree
+	 */
+	private boolean done() {
+		return components.count() <= 1;
+	}
+	/**
+	 * Picks the median of evenly spaced samples, which is larger than the smallest key so both sides are smaller than
+	 * the range
+	 * @param keys the keys, at least SAMPLES of them
+	 * @return the pivot
+	 */
+	private static long pivot(long[] keys) {
+		long[] samples = new long[SAMPLES];
+		for(int i = 0; i < SAMPLES; i++) {
+			samples[i] = keys[(int) ((long) keys.length * i / SAMPLES)];
+		}
+		Arrays.sort(samples);
+		return samples[SAMPLES / 2];
+	}
+}
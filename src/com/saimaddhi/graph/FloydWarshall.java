@@ -0,0 +1,134 @@
+package com.saimaddhi.graph;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+/**
+ * All pairs shortest paths by a cache blocked Floyd-Warshall. The matrix is cut into square tiles and for every
+ * diagonal tile k the tile itself, then its row and column of tiles, then all other tiles are updated, the last two
+ * steps with every tile on its own task of the common fork join pool. Each tile update copies its tiles into small
+ * row arrays and runs a min-plus kernel whose inner loop is plain int arithmetic that the JIT compiles to vector
+ * instructions
+ * @author saimaddhi
+ *
+ */
+public class FloydWarshall {
+	/**
+	 * The side of a tile, three tiles of ints fit in the L2 cache and the inner loop is long enough to vectorize well
+	 */
+	private static final int TILE = 128;
+	/**
+	 * This class only has static methods
+	 */
+	private FloydWarshall() {
+	}
+	/**
+	 * Returns the distances between all pairs of vertices in a matrix on the heap
+	 * @param graph the snapshot
+	 * @return the distance matrix
+	 * @throws IllegalArgumentException if the snapshot has negative weights
+	 * @throws IllegalStateException if the matrix has more than Integer.MAX_VALUE entries
+	 */
+	public static DistanceMatrix allPairs(CsrGraph graph) {
+		Dijkstra.checkWeights(graph);
+		DistanceMatrix matrix = new DistanceMatrix(graph);
+		solve(matrix);
+		return matrix;
+	}
+	/**
+	 * Returns the distances between all pairs of vertices in a matrix mapped from the specified file, which is replaced
+	 * @param graph the snapshot
+	 * @param file the file
+	 * @return the distance matrix, which should be closed when no longer needed
+	 * @throws IOException if the file cannot be created or mapped
+	 * @throws IllegalArgumentException if the snapshot has negative weights
+	 */
+	public static DistanceMatrix allPairs(CsrGraph graph, Path file) throws IOException {
+		Dijkstra.checkWeights(graph);
+		DistanceMatrix matrix = new DistanceMatrix(graph, file);
+		solve(matrix);
+		return matrix;
+	}
+	/**
+	 * Fills the matrix with the edges of its snapshot and runs the blocked Floyd-Warshall over it
+	 * @param matrix the matrix with every distance INF
+	 */
+	private static void solve(DistanceMatrix matrix) {
+		CsrGraph graph = matrix.getGraph();
+		int n = graph.vertexCount();
+		int[] starts = graph.getEdgeStarts();
+		int[] ends = graph.getEdgeEnds();
+		int[] weights = graph.getEdgeWeights();
+		for(int v = 0; v < n; v++) {
+			matrix.lower(v, v, 0);
+		}
+		for(int e = 0; e < starts.length; e++) {
+			int weight = Math.min(weights[e], DistanceMatrix.INF);
+			matrix.lower(starts[e], ends[e], weight);
+			matrix.lower(ends[e], starts[e], weight);
+		}
+		
+		int tiles = (n + TILE - 1) / TILE;
+		for(int k = 0; k < tiles; k++) {
+			int pivot = k * TILE;
+			int[][] diagonal = new int[TILE][TILE];
+			matrix.readTile(pivot, pivot, diagonal);
+			kernel(diagonal, diagonal, diagonal);
+			matrix.writeTile(pivot, pivot, diagonal);
+			
+			//The pivot row and column of tiles depend only on the diagonal tile
+			int current = k;
+			IntStream.range(0, 2 * tiles).parallel().forEach(t -> {
+				int other = t % tiles;
+				if(other == current) return;
+				int[][] tile = new int[TILE][TILE];
+				if(t < tiles) {
+					matrix.readTile(pivot, other * TILE, tile);
+					kernel(tile, diagonal, tile);
+					matrix.writeTile(pivot, other * TILE, tile);
+				} else {
+					matrix.readTile(other * TILE, pivot, tile);
+					kernel(tile, tile, diagonal);
+					matrix.writeTile(other * TILE, pivot, tile);
+				}
+			});
+			
+			//Every other tile depends on its tile in the pivot column and its tile in the pivot row
+			IntStream.range(0, tiles * tiles).parallel().forEach(t -> {
+				int i = t / tiles;
+				int j = t % tiles;
+				if(i == current || j == current) return;
+				int[][] tile = new int[TILE][TILE];
+				int[][] column = new int[TILE][TILE];
+				int[][] row = new int[TILE][TILE];
+				matrix.readTile(i * TILE, j * TILE, tile);
+				matrix.readTile(i * TILE, pivot, column);
+				matrix.readTile(pivot, j * TILE, row);
+				kernel(tile, column, row);
+				matrix.writeTile(i * TILE, j * TILE, tile);
+			});
+		}
+	}
+	/**
+	 * The min-plus kernel, c[i][j] = min(c[i][j], a[i][k] + b[k][j]) for every k in order, which stays correct when c is
+	 * the same tile as a or b. Entries lie between 0 and INF, so neither the sums nor their differences overflow and the
+	 * results stay at most INF
+	 * @param c the tile being updated
+	 * @param a the tile holding the paths from c's rows to the pivot vertices
+	 * @param b the tile holding the paths from the pivot vertices to c's columns
+	 */
+	private static void kernel(int[][] c, int[][] a, int[][] b) {
+		for(int k = 0; k < TILE; k++) {
+			int[] pivotRow = b[k];
+			for(int i = 0; i < TILE; i++) {
+				int via = a[i][k];
+				if(via >= DistanceMatrix.INF) continue;
+				//Both rows are indexed by j alone, so the JIT can vectorize even when they are the same row
+				int[] row = c[i];
+				for(int j = 0; j < TILE; j++) {
+					int difference = via + pivotRow[j] - row[j];
+					row[j] += difference & (difference >> 31);
+				}
+			}
+		}
+	}
+}
@@ -1,12 +1,16 @@
 package com.saimaddhi.graph;
-import java.io.*;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.PriorityQueue;
-import java.util.Scanner;
-import java.util.Stack;
+
+import com.saimaddhi.graph.primitive.IntDeque;
+import com.saimaddhi.graph.primitive.IntStack;
+import com.saimaddhi.graph.primitive.LongHashSet;
+import com.saimaddhi.graph.primitive.LongObjectMap;
 /**
  * The graph class
  * @author saimaddhi
@@ -21,12 +25,69 @@ public class Graph {
 	 * The list of edges of the graph
 	 */
 	private ArrayList<Edge> edges;
+	/**
+	 * The index of the edges keyed by the unordered pair of their vertex ids, the duplicates between a pair are chained
+	 * from the indexed edge
+	 */
+	private LongObjectMap<Edge> edgeIndex;
+	/**
+	 * The id that will be given to the next added vertex when no freed id is left, one past the highest id in use
+	 */
+	private int nextId;
+	/**
+	 * The ids of the removed vertices, given out again before new ones so the ids stay bounded by the most vertices
+	 * the graph has held at once
+	 */
+	private IntStack freeIds;
+	/**
+	 * The vertices indexed by id, null for ids whose vertex was removed
+	 */
+	private ArrayList<Vertex> verticesById;
+	/**
+	 * The reusable traversal state of each thread
+	 */
+	private static final ThreadLocal<Traversal> TRAVERSALS = ThreadLocal.withInitial(Traversal::new);
+	/**
+	 * The compressed snapshot of the graph, null if the graph changed since it was last frozen
+	 */
+	private CsrGraph frozen;
+	/**
+	 * The listeners told about every change to the graph
+	 */
+	private ArrayList<GraphListener> listeners;
+	/**
+	 * The connectivity index kept up to date as edges are added, null until the first connectivity query
+	 */
+	private ConnectivityIndex connectivity;
+	/**
+	 * The version history snapshots are read from, null until the first snapshot is taken
+	 */
+	private volatile VersionLog versions;
 	/**
 	 * The default constructor for the graph class
 	 */
 	public Graph() {
 		vertices = new HashMap<String, Vertex>(0);
 		edges = new ArrayList<Edge>(0);
+		edgeIndex = new LongObjectMap<Edge>(0);
+		nextId = 0;
+		freeIds = new IntStack();
+		verticesById = new ArrayList<Vertex>(0);
+		listeners = new ArrayList<GraphListener>(0);
+	}
+	/**
+	 * Registers a listener that is told about every vertex and edge added to or removed from the graph from now on
+	 * @param listener the listener
+	 */
+	public void addListener(GraphListener listener) {
+		listeners.add(listener);
+	}
+	/**
+	 * Unregisters the specified listener
+	 * @param listener the listener
+	 */
+	public void removeListener(GraphListener listener) {
+		listeners.remove(listener);
 	}
 	/**
 	 * The addEdge Method that adds an edge to the graph
@@ -35,16 +96,12 @@ public class Graph {
 	 * @param weight the weight of the edge
 	 */
 	public void addEdge(String startLabel, String endLabel, int weight) {
-		Edge find = new Edge(new Vertex(startLabel), new Vertex(endLabel), weight);
-		if(edges.contains(find) ||
-				edges.contains(new Edge(new Vertex(endLabel), new Vertex(startLabel), weight))) return;
 		Vertex start = vertices.get(startLabel);
 		Vertex end = vertices.get(endLabel);
+		if(start != null && end != null && edgeIndex.containsKey(key(start, end))) return;
 		if(start == null) start = addVertex(startLabel);
 		if(end == null) end = addVertex(endLabel);
-		start.addNeighbor(end);
-		end.addNeighbor(start);
-		edges.add(new Edge(start, end, weight));
+		appendEdge(start, end, weight);
 	}
 	/**
 	 * The addEdge Method that adds an edge to the graph, however this one allows adding duplicates(used by the UI Drawer)
@@ -57,44 +114,288 @@ public class Graph {
 		Vertex end = vertices.get(endLabel);
 		if(start == null) start = addVertex(startLabel);
 		if(end == null) end = addVertex(endLabel);
+		appendEdge(start, end, weight);
+	}
+	/**
+	 * Adds an edge between two vertices of this graph unless they are already joined
+	 * @param start the start vertex
+	 * @param end the end vertex
+	 * @param weight the weight of the edge
+	 */
+	void addEdge(Vertex start, Vertex end, int weight) {
+		if(!edgeIndex.containsKey(key(start, end))) appendEdge(start, end, weight);
+	}
+	/**
+	 * Adds an edge between two vertices of this graph even if they are already joined
+	 * @param start the start vertex
+	 * @param end the end vertex
+	 * @param weight the weight of the edge
+	 */
+	void addEdgeAllowDuplicates(Vertex start, Vertex end, int weight) {
+		appendEdge(start, end, weight);
+	}
+	/**
+	 * Adds the edges of the batch in one pass, skipping every edge whose vertices are already joined in the graph or
+	 * earlier in the batch. The vertices are added first and their neighbor lists are presized from the batch's degree
+	 * counts, so this is much faster than calling addEdge for each edge
+	 * @param batch the edges
+	 * @return the number of edges added
+	 */
+	public int addEdges(EdgeBatch batch) {
+		return addEdges(batch, false);
+	}
+	/**
+	 * Adds every edge of the batch in one pass, even if its vertices are already joined
+	 * @param batch the edges
+	 * @return the number of edges added
+	 */
+	public int addEdgesAllowDuplicates(EdgeBatch batch) {
+		return addEdges(batch, true);
+	}
+	/**
+	 * Removes one edge for every distinct pair of vertices in the batch, ignoring the weights and any pair that is not
+	 * joined. As with removeEdge, vertices left without edges are removed
+	 * @param batch the pairs of vertices
+	 * @return the number of edges removed
+	 */
+	public int removeEdges(EdgeBatch batch) {
+		ArrayList<String> labels = batch.getLabels();
+		Vertex[] local = new Vertex[labels.size()];
+		for(int i = 0; i < local.length; i++) {
+			local[i] = vertices.get(labels.get(i));
+		}
+		int[] starts = batch.getStarts();
+		int[] ends = batch.getEnds();
+		LongHashSet seen = new LongHashSet(batch.size());
+		
+		//Unlink one edge per pair and leave a hole in its slot of the edge list
+		ArrayList<Edge> removed = new ArrayList<Edge>();
+		ArrayList<Vertex> isolated = new ArrayList<Vertex>();
+		int[] isolatedEnds = new int[batch.size()];
+		for(int i = 0; i < batch.size(); i++) {
+			Vertex start = local[starts[i]];
+			Vertex end = local[ends[i]];
+			if(start == null || end == null) continue;
+			long key = key(start, end);
+			if(!seen.add(key)) continue;
+			Edge edge = edgeIndex.get(key);
+			if(edge == null) continue;
+			unlink(edge, isolated);
+			unindex(edge);
+			edges.set(edge.getPosition(), null);
+			isolatedEnds[removed.size()] = isolated.size();
+			removed.add(edge);
+		}
+		if(removed.isEmpty()) return 0;
+		frozen = null;
+		
+		//Fill the holes below the new size with the edges left above it, then cut the list once
+		int size = edges.size() - removed.size();
+		int tail = edges.size() - 1;
+		for(Edge edge : removed) {
+			int position = edge.getPosition();
+			edge.setPosition(-1);
+			if(position >= size) continue;
+			while(edges.get(tail) == null) {
+				tail--;
+			}
+			Edge last = edges.get(tail--);
+			edges.set(position, last);
+			last.setPosition(position);
+		}
+		edges.subList(size, edges.size()).clear();
+		
+		for(int i = 0; i < listeners.size(); i++) {
+			GraphListener listener = listeners.get(i);
+			int v = 0;
+			for(int e = 0; e < removed.size(); e++) {
+				listener.edgeRemoved(removed.get(e));
+				for(; v < isolatedEnds[e]; v++) {
+					listener.vertexRemoved(isolated.get(v));
+				}
+			}
+		}
+		return removed.size();
+	}
+	/**
+	 * Adds the edges of the batch in one pass
+	 * @param batch the edges
+	 * @param duplicates true to add edges between vertices that are already joined
+	 * @return the number of edges added
+	 */
+	private int addEdges(EdgeBatch batch, boolean duplicates) {
+		ArrayList<String> labels = batch.getLabels();
+		int[] starts = batch.getStarts();
+		int[] ends = batch.getEnds();
+		int[] weights = batch.getWeights();
+		int size = batch.size();
+		Vertex[] local = new Vertex[labels.size()];
+		for(int i = 0; i < local.length; i++) {
+			local[i] = addVertex(labels.get(i));
+		}
+		
+		//Keep the edges that join new pairs and count how many neighbors each vertex gains
+		int[] accepted = new int[size];
+		int count = 0;
+		int[] degrees = new int[local.length];
+		LongHashSet seen = duplicates ? null : new LongHashSet(size);
+		for(int i = 0; i < size; i++) {
+			if(!duplicates) {
+				long key = key(local[starts[i]], local[ends[i]]);
+				if(!seen.add(key) || (!edgeIndex.isEmpty() && edgeIndex.containsKey(key))) continue;
+			}
+			accepted[count++] = i;
+			degrees[starts[i]]++;
+			degrees[ends[i]]++;
+		}
+		for(int i = 0; i < local.length; i++) {
+			if(degrees[i] > 0) local[i].ensureNeighborCapacity(local[i].getNeighbors().size() + degrees[i]);
+		}
+		edges.ensureCapacity(edges.size() + count);
+		edgeIndex.ensureCapacity(edgeIndex.size() + count);
+		for(int i = 0; i < count; i++) {
+			int e = accepted[i];
+			appendEdge(local[starts[e]], local[ends[e]], weights[e]);
+		}
+		return count;
+	}
+	/**
+	 * Links the two vertices and appends the new edge to the edge list and the edge index
+	 * @param start the start vertex
+	 * @param end the end vertex
+	 * @param weight the weight of the edge
+	 * @return the new edge
+	 */
+	private Edge appendEdge(Vertex start, Vertex end, int weight) {
+		Edge edge = new Edge(start, end, weight);
 		start.addNeighbor(end);
 		end.addNeighbor(start);
-		edges.add(new Edge(start, end, weight));
+		edge.setPosition(edges.size());
+		edges.add(edge);
+		Edge first = edgeIndex.putIfAbsent(key(start, end), edge);
+		if(first != null) {
+			edge.setDuplicate(first.getDuplicate());
+			first.setDuplicate(edge);
+		}
+		frozen = null;
+		for(int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).edgeAdded(edge);
+		}
+		return edge;
 	}
 	/**
-	 * The add Vertex method that adds and returns the added vertex
+	 * Removes the edge's vertices from each other's neighbors, and removes from the graph each vertex left without
+	 * neighbors
+	 * @param edge the edge
+	 * @param isolated the list that receives the removed vertices
+	 */
+	private void unlink(Edge edge, ArrayList<Vertex> isolated) {
+		Vertex end = edge.getEnd();
+		Vertex start = edge.getStart();
+		if(end.removeNeighbor(start)) {
+			vertices.remove(end.getLabel());
+			verticesById.set(end.getId(), null);
+			freeIds.push(end.getId());
+			isolated.add(end);
+		}
+		if(start.removeNeighbor(end)) {
+			vertices.remove(start.getLabel());
+			verticesById.set(start.getId(), null);
+			freeIds.push(start.getId());
+			isolated.add(start);
+		}
+	}
+	/**
+	 * Unlinks the edge from the chain of edges between its vertices, pointing the index at a remaining duplicate if the
+	 * edge was the indexed one
+	 * @param edge the edge
+	 */
+	private void unindex(Edge edge) {
+		long key = key(edge.getStart(), edge.getEnd());
+		Edge first = edgeIndex.get(key);
+		if(first == edge) {
+			if(edge.getDuplicate() == null) {
+				edgeIndex.remove(key);
+			} else {
+				edgeIndex.put(key, edge.getDuplicate());
+			}
+		} else {
+			for(Edge other = first; other != null; other = other.getDuplicate()) {
+				if(other.getDuplicate() == edge) {
+					other.setDuplicate(edge.getDuplicate());
+					break;
+				}
+			}
+		}
+		edge.setDuplicate(null);
+	}
+	/**
+	 * Returns the edge index key of the unordered pair of vertices
+	 * @param a one vertex
+	 * @param b the other vertex
+	 * @return the key
+	 */
+	private static long key(Vertex a, Vertex b) {
+		long low = Math.min(a.getId(), b.getId());
+		long high = Math.max(a.getId(), b.getId());
+		return (high << 32) | low;
+	}
+	/**
+	 * The add Vertex method that adds and returns the added vertex, if the label is already taken the existing vertex
+	 * is returned instead
 	 * @param label the vertex to be added
 	 * @return the added vertex
 	 */
 	public Vertex addVertex(String label) {
-		vertices.put(label, new Vertex(label));
-		return vertices.get(label);
+		Vertex vertex = vertices.get(label);
+		if(vertex != null) return vertex;
+		vertex = new Vertex(label);
+		if(freeIds.isEmpty()) {
+			vertex.setId(nextId++);
+			verticesById.add(vertex);
+		} else {
+			vertex.setId(freeIds.pop());
+			verticesById.set(vertex.getId(), vertex);
+		}
+		vertices.put(label, vertex);
+		frozen = null;
+		for(int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).vertexAdded(vertex);
+		}
+		return vertex;
 	}
 	/**
-	 * The addEdges from file method that adds edges from the specified file
+	 * The addEdges from file method that adds edges from the specified file, where each line holds "start end weight"
 	 * @param fileName the file name
+	 * @throws UncheckedIOException if the file cannot be read or has malformed lines, nothing is added in that case
 	 */
 	public void addEdgesFromFile(String fileName) {
 		try {
-			File file = new File(fileName);
-			Scanner scanner = new Scanner(file);
-			String line = "";
-			int weight;
-			String startLabel;
-			String endLabel;
-			while(scanner.hasNextLine()) {
-				line = scanner.nextLine();
-				startLabel = line.substring(0,line.indexOf(" "));
-				endLabel = line.substring(line.indexOf(" ")+1, line.lastIndexOf(" "));
-				weight = Integer.parseInt(line.substring(line.lastIndexOf(" ")+1));
-				addEdge(startLabel, endLabel, weight);
-			}
+			EdgeListLoader.load(this, Paths.get(fileName));
 		} catch(IOException e) {
-			e.printStackTrace();
+			throw new UncheckedIOException(e);
 		}
 	}
 	/**
-	 * This method returns the depth first traversal of the graph starting from the specified vertex
+	 * Saves the graph to the specified file in the compact binary format of {@link BinaryGraphFormat}
+	 * @param file the file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void save(Path file) throws IOException {
+		BinaryGraphFormat.save(this, file);
+	}
+	/**
+	 * Loads a graph that was saved in the compact binary format of {@link BinaryGraphFormat}
+	 * @param file the file
+	 * @return the loaded graph
+	 * @throws IOException if the file cannot be read or is corrupt
+	 */
+	public static Graph load(Path file) throws IOException {
+		return BinaryGraphFormat.load(file);
+	}
+	/**
+	 * This method returns the depth first traversal of the graph starting from the specified vertex. The visited
+	 * vertices are tracked per thread, so concurrent read only traversals of the same graph are safe
 	 * @param label the starting label
 	 * @return the list of the vertices part of the traversal
 	 */
@@ -104,25 +405,28 @@ public class Graph {
 		if(vertex == null) {
 			return vertexs;
 		} else {
-			Stack<Vertex> stack = new Stack<Vertex>();
-			stack.add(vertex);
-			vertex.isVisited(true);
+			Traversal traversal = TRAVERSALS.get();
+			traversal.begin(nextId);
+			IntStack stack = traversal.stack;
+			stack.push(vertex.getId());
+			traversal.visit(vertex.getId());
 			while(!stack.isEmpty()) {
-				Vertex old = stack.pop();
+				Vertex old = verticesById.get(stack.pop());
 				vertexs.add(old);
-				for(Vertex v: old.getNeighbors()) {
-					if(!v.isVisited()) {
-						stack.add(v);
-						v.isVisited(true);
+				ArrayList<Vertex> neighbors = old.getNeighbors();
+				for(int i = 0; i < neighbors.size(); i++) {
+					int id = neighbors.get(i).getId();
+					if(traversal.visit(id)) {
+						stack.push(id);
 					}
 				}
 			}
 		}
-		resetVertices();
 		return vertexs;
 	}
 	/**
-	 * returns the breadth first traversal of the graph starting from the specified vertex
+	 * returns the breadth first traversal of the graph starting from the specified vertex. The visited vertices are
+	 * tracked per thread, so concurrent read only traversals of the same graph are safe
 	 * @param label the specified vertex
 	 * @return the list of vertices part of the breadth first traversal
 	 */
@@ -132,96 +436,221 @@ public class Graph {
 		if(vertex == null) {
 			return vertexs;
 		} else {
-			Queue<Vertex> queue = new Queue<Vertex>();
-			queue.push(vertex);
-			vertex.isVisited(true);
+			Traversal traversal = TRAVERSALS.get();
+			traversal.begin(nextId);
+			IntDeque queue = traversal.queue;
+			queue.addLast(vertex.getId());
+			traversal.visit(vertex.getId());
 			while(!queue.isEmpty()) {
-				for(Vertex v: queue.peek().getNeighbors()) {
-					if(!v.isVisited()) {
-						queue.push(v);
-						v.isVisited(true);
+				Vertex old = verticesById.get(queue.pollFirst());
+				vertexs.add(old);
+				ArrayList<Vertex> neighbors = old.getNeighbors();
+				for(int i = 0; i < neighbors.size(); i++) {
+					int id = neighbors.get(i).getId();
+					if(traversal.visit(id)) {
+						queue.addLast(id);
 					}
 				}
-				vertexs.add(queue.pop());
 			}
 		}
-		resetVertices();
 		return vertexs;
 	}
 	/**
-	 * Resets the vertices and makes all of their visited values false
+	 * Returns the breadth first traversal starting from the specified vertex split into levels, computed by a parallel
+	 * direction optimizing search over the graph's snapshot. Each level is ordered by vertex id
+	 * @param label the specified vertex
+	 * @return the list of levels, level i holds the vertices i edges away from the start
 	 */
-	private void resetVertices() {
-		for(Vertex v: vertices.values()) {
-			v.isVisited(false);
+	public ArrayList<ArrayList<Vertex>> breadthFirstLevels(String label) {
+		ArrayList<ArrayList<Vertex>> levels = new ArrayList<ArrayList<Vertex>>();
+		CsrGraph graph = freeze();
+		int source = graph.indexOf(label);
+		if(source < 0) return levels;
+		int[] depths = ParallelBreadthFirstSearch.depths(graph, source);
+		for(int v = 0; v < depths.length; v++) {
+			if(depths[v] < 0) continue;
+			while(levels.size() <= depths[v]) {
+				levels.add(new ArrayList<Vertex>());
+			}
+			levels.get(depths[v]).add(graph.getVertex(v));
 		}
+		return levels;
 	}
 	/**
-	 * Returns the list of the edges part of the minimum spanning tree
+	 * Returns the list of the edges part of the minimum spanning tree, picking Prim's algorithm for dense graphs and
+	 * Kruskal's algorithm otherwise. If the graph is not connected the minimum spanning forest is returned instead
 	 * @return the list of edges part of the mst
 	 */
 	public ArrayList<Edge> minimumSpanningTree() {
-		ArrayList<Edge> vertexs = new ArrayList<Edge>();
-		Edge[] branches = new Edge[this.edges.size()];
-		Graph graph = new Graph();
-		Edge edge;
-		boolean isCyclic;
-		int index = 0;
-		this.resetVertices();
-		
-		//Sort Edges
-		for(int i = 0; i < this.edges.size(); i++) {
-			branches[i] = this.edges.get(i);
-		}
-		Arrays.sort(branches);
-		
-		//Keep adding lowest noncyclic edges to "vertexs"
-		while(vertexs.size() < vertices.values().size() - 1) {
-			edge = branches[index];
-			graph.addEdge(edge.getStart().getLabel(), edge.getEnd().getLabel(), edge.getWeight());
-			edge = graph.edges.get(graph.edges.size() - 1);
-			
-			Vertex start = edge.getStart();
-			start.isVisited(true);
-			graph.resetVertices();
-			isCyclic = graph.isCyclical(null, start, false);
-			
-			if(isCyclic) {
-				graph.removeEdge(edge);
-			} else {
-				vertexs.add(edge);
-			}
-			index++;
-		}
-		return vertexs;
+		return minimumSpanningTree(MstStrategy.AUTO);
 	}
 	/**
-	 * Returns true if the graph has cycles
-	 * @param parent the parent of the vertex that is currently being recursed on
-	 * @param current the current vertex being recursed on
-	 * @param isCyclic true if the graph contains cycles
-	 * @return true if the graph contains cycles
-	 */
-	private boolean isCyclical(Vertex parent, Vertex current, boolean isCyclic) {
-		current.isVisited(true);
-		if(isCyclic) return true;
-		for(Vertex vertex : current.getNeighbors()) {
-			if(vertex.isVisited()) {
-				if(parent == null) parent = new Vertex(vertex.getLabel() + "notThis"); 
-				if(!vertex.equals(parent)) {
-					isCyclic = true;
-					return true;
-				} else {
-					continue;
-				}
-			} else {
-				if(isCyclical(current, vertex, isCyclic)) {
-					isCyclic = true;
-					return true;
-				}
-			}
+	 * Returns the list of the edges part of the minimum spanning tree, or forest if the graph is not connected, using
+	 * the specified algorithm. Every strategy returns the same edges in order of weight
+	 * @param strategy the algorithm to use
+	 * @return the list of edges part of the mst
+	 */
+	public ArrayList<Edge> minimumSpanningTree(MstStrategy strategy) {
+		CsrGraph graph = freeze();
+		if(strategy == MstStrategy.AUTO) strategy = MstStrategy.forSize(graph.vertexCount(), graph.edgeCount());
+		switch(strategy) {
+			case BORUVKA:
+				return BoruvkaMst.minimumSpanningTree(graph);
+			case PRIM:
+				return PrimMst.minimumSpanningTree(graph);
+			case FILTER_KRUSKAL:
+				return FilterKruskalMst.minimumSpanningTree(graph);
+			case KRUSKAL:
+			default:
+				return graph.minimumSpanningTree();
 		}
-		return false;
+	}
+	/**
+	 * Returns the connected components of the graph, found in parallel over the graph's snapshot
+	 * @return the components
+	 */
+	public ConnectedComponents connectedComponents() {
+		return ConnectedComponents.of(freeze());
+	}
+	/**
+	 * Returns true if there is a path between the two vertices. The first call builds an index that later added edges
+	 * are merged into, so repeated calls stay near constant time while edges are added. Removing an edge makes the
+	 * next call rebuild the index
+	 * @param a the label of the first vertex
+	 * @param b the label of the second vertex
+	 * @return true if the vertices are connected
+	 * @throws IllegalArgumentException if either vertex does not exist
+	 */
+	public boolean isConnected(String a, String b) {
+		Vertex first = vertices.get(a);
+		if(first == null) throw new IllegalArgumentException("No vertex labeled " + a);
+		Vertex second = vertices.get(b);
+		if(second == null) throw new IllegalArgumentException("No vertex labeled " + b);
+		if(connectivity == null) connectivity = new ConnectivityIndex(this);
+		return connectivity.connected(first, second);
+	}
+	/**
+	 * Returns the shortest paths from the specified vertex to every vertex using Dijkstra's algorithm over the graph's
+	 * snapshot
+	 * @param source the label of the source vertex
+	 * @return the shortest paths
+	 * @throws IllegalArgumentException if there is no such vertex or an edge has a negative weight
+	 */
+	public ShortestPaths shortestPaths(String source) {
+		CsrGraph graph = freeze();
+		return Dijkstra.shortestPaths(graph, idOf(graph, source));
+	}
+	/**
+	 * Returns the shortest paths from the specified vertex to every vertex using parallel delta-stepping over the
+	 * graph's snapshot. The distances are the same as those of shortestPaths, but ties between equally short paths may
+	 * be broken differently
+	 * @param source the label of the source vertex
+	 * @return the shortest paths
+	 * @throws IllegalArgumentException if there is no such vertex or an edge has a negative weight
+	 */
+	public ShortestPaths parallelShortestPaths(String source) {
+		CsrGraph graph = freeze();
+		return DeltaStepping.shortestPaths(graph, idOf(graph, source));
+	}
+	/**
+	 * Returns the shortest path between the specified vertices using Dijkstra's algorithm, which stops as soon as the
+	 * target is reached
+	 * @param source the label of the source vertex
+	 * @param target the label of the target vertex
+	 * @return the path
+	 * @throws IllegalArgumentException if either vertex does not exist or an edge has a negative weight
+	 */
+	public PathResult shortestPath(String source, String target) {
+		CsrGraph graph = freeze();
+		return Dijkstra.shortestPath(graph, idOf(graph, source), idOf(graph, target));
+	}
+	/**
+	 * Returns the shortest path between the specified vertices using A* guided by the straight line distance between
+	 * the vertices' coordinates, scaled so that it never overestimates
+	 * @param source the label of the source vertex
+	 * @param target the label of the target vertex
+	 * @return the path
+	 * @throws IllegalArgumentException if either vertex does not exist or an edge has a negative weight
+	 */
+	public PathResult aStar(String source, String target) {
+		CsrGraph graph = freeze();
+		return AStar.shortestPath(graph, idOf(graph, source), idOf(graph, target), EuclideanHeuristic.fit(graph));
+	}
+	/**
+	 * Returns the shortest path between the specified vertices using A* guided by the specified heuristic, which must
+	 * have been built on the graph's current snapshot
+	 * @param source the label of the source vertex
+	 * @param target the label of the target vertex
+	 * @param heuristic an admissible estimate of the distance to the target
+	 * @return the path
+	 * @throws IllegalArgumentException if either vertex does not exist or an edge has a negative weight
+	 */
+	public PathResult aStar(String source, String target, Heuristic heuristic) {
+		CsrGraph graph = freeze();
+		return AStar.shortestPath(graph, idOf(graph, source), idOf(graph, target), heuristic);
+	}
+	/**
+	 * Returns the shortest path between the specified vertices using bidirectional Dijkstra
+	 * @param source the label of the source vertex
+	 * @param target the label of the target vertex
+	 * @return the path
+	 * @throws IllegalArgumentException if either vertex does not exist or an edge has a negative weight
+	 */
+	public PathResult bidirectionalShortestPath(String source, String target) {
+		CsrGraph graph = freeze();
+		return BidirectionalDijkstra.shortestPath(graph, idOf(graph, source), idOf(graph, target));
+	}
+	/**
+	 * Precomputes an ALT landmark heuristic for repeated A* queries on the graph's current snapshot. It stays valid
+	 * until the graph is changed
+	 * @param count the number of landmarks, each costing one shortest path search and one distance per vertex
+	 * @return the heuristic
+	 * @throws IllegalArgumentException if an edge has a negative weight
+	 */
+	public LandmarkHeuristic landmarks(int count) {
+		return new LandmarkHeuristic(freeze(), count);
+	}
+	/**
+	 * Returns the distances between all pairs of vertices, computed by a blocked Floyd-Warshall over a dense matrix on
+	 * the heap. Meant for graphs of up to about twenty thousand vertices
+	 * @return the distance matrix indexed by the dense ids of the graph's snapshot
+	 * @throws IllegalArgumentException if an edge has a negative weight
+	 * @throws IllegalStateException if the matrix is too big for an int array
+	 */
+	public DistanceMatrix allPairsShortestPaths() {
+		return FloydWarshall.allPairs(freeze());
+	}
+	/**
+	 * Returns the distances between all pairs of vertices in a matrix memory mapped from the specified file, for
+	 * matrices too big for the heap
+	 * @param file the file, which is replaced
+	 * @return the distance matrix indexed by the dense ids of the graph's snapshot, which should be closed after use
+	 * @throws IOException if the file cannot be created or mapped
+	 * @throws IllegalArgumentException if an edge has a negative weight
+	 */
+	public DistanceMatrix allPairsShortestPaths(Path file) throws IOException {
+		return FloydWarshall.allPairs(freeze(), file);
+	}
+	/**
+	 * Builds a contraction hierarchy of the graph's current snapshot for fast repeated shortest path queries. The
+	 * hierarchy answers queries on that snapshot, so it has to be rebuilt after the graph is changed
+	 * @return the hierarchy
+	 * @throws IllegalArgumentException if an edge has a negative weight
+	 */
+	public ContractionHierarchy contractionHierarchy() {
+		return ContractionHierarchy.build(freeze());
+	}
+	/**
+	 * Returns the dense id of the vertex with the specified label in the snapshot
+	 * @param graph the snapshot
+	 * @param label the label
+	 * @return the dense id
+	 * @throws IllegalArgumentException if there is no such vertex
+	 */
+	private static int idOf(CsrGraph graph, String label) {
+		int id = graph.indexOf(label);
+		if(id < 0) throw new IllegalArgumentException("No vertex labeled " + label);
+		return id;
 	}
 	/**
 	 * Displays the MST statistics to the console
@@ -237,25 +666,69 @@ public class Graph {
 		System.out.println("\nTotal Weight: " + total);
 	}
 	/**
-	 * This method removes the specified edge from the graph
+	 * This method removes the specified edge from the graph, if the edge is not one of the graph's own edges then the
+	 * graph's edge between the same two vertices is removed
 	 * @param e the edge to be removed
 	 */
 	public void removeEdge(Edge e) {
-		for(int i = 0; i < edges.size(); i++) {
-			if(edges.get(i).equals(e)) {
-				Vertex end = e.getEnd();
-				Vertex start = e.getStart();	
-				if(end.removeNeighbor(start)) {
-					vertices.remove(end.getLabel());
-				}
-				if(start.removeNeighbor(end)) {
-					vertices.remove(start.getLabel());
-				}
-				edges.remove(i);
-				break;
+		Edge edge = e;
+		if(e.getPosition() < 0 || e.getPosition() >= edges.size() || edges.get(e.getPosition()) != e) {
+			Vertex start = vertices.get(e.getStart().getLabel());
+			Vertex end = vertices.get(e.getEnd().getLabel());
+			if(start == null || end == null) return;
+			edge = edgeIndex.get(key(start, end));
+			if(edge == null) return;
+		}
+		frozen = null;
+		ArrayList<Vertex> isolated = new ArrayList<Vertex>(2);
+		unlink(edge, isolated);
+		
+		//Swap the last edge into the freed slot
+		int position = edge.getPosition();
+		Edge last = edges.remove(edges.size() - 1);
+		if(last != edge) {
+			edges.set(position, last);
+			last.setPosition(position);
+		}
+		edge.setPosition(-1);
+		
+		unindex(edge);
+		
+		for(int i = 0; i < listeners.size(); i++) {
+			GraphListener listener = listeners.get(i);
+			listener.edgeRemoved(edge);
+			for(int v = 0; v < isolated.size(); v++) {
+				listener.vertexRemoved(isolated.get(v));
 			}
 		}
 	}
+	/**
+	 * Returns an immutable view of the graph's current version that stays the same as the graph changes. Once the
+	 * first snapshot is taken every change is logged, and later snapshots may be taken from any thread without ever
+	 * blocking the thread changing the graph. The first call must not run alongside changes
+	 * @return the snapshot
+	 */
+	public GraphSnapshot snapshot() {
+		VersionLog log = versions;
+		if(log == null) {
+			log = new VersionLog(this);
+			versions = log;
+		}
+		return log.snapshot();
+	}
+	/**
+	 * Returns an immutable compressed sparse row snapshot of the graph for read heavy work. The snapshot is cached
+	 * until the graph is changed
+	 * @return the snapshot
+	 */
+	public CsrGraph freeze() {
+		CsrGraph snapshot = frozen;
+		if(snapshot == null) {
+			snapshot = new CsrGraph(vertices.values(), edges);
+			frozen = snapshot;
+		}
+		return snapshot;
+	}
 	/**
 	 * Getter for the vertices hashmap
 	 * @return the vertices hashmap
@@ -281,4 +754,50 @@ public class Graph {
 		}
 		return result.substring(0, result.length());
 	}
+	/**
+	 * The reusable state of the traversals run by one thread. Vertices are marked visited by stamping them with the
+	 * current epoch, so starting a traversal does not have to clear the marks of the previous one
+	 */
+	private static class Traversal {
+		/**
+		 * The epoch each vertex id was last visited in
+		 */
+		private int[] marks = new int[16];
+		/**
+		 * The epoch of the current traversal
+		 */
+		private int epoch;
+		/**
+		 * The stack of the depth first traversal
+		 */
+		private IntStack stack = new IntStack();
+		/**
+		 * The queue of the breadth first traversal
+		 */
+		private IntDeque queue = new IntDeque();
+		/**
+		 * Starts a new traversal over vertex ids below the specified bound
+		 * @param ids the bound on the vertex ids
+		 */
+		private void begin(int ids) {
+			if(marks.length < ids) marks = new int[Math.max(ids, marks.length * 2)];
+			epoch++;
+			if(epoch == 0) {
+				Arrays.fill(marks, 0);
+				epoch = 1;
+			}
+			stack.clear();
+			queue.clear();
+		}
+		/**
+		 * Marks the specified vertex id visited
+		 * @param id the vertex id
+		 * @return true if the vertex had not been visited yet in this traversal
+		 */
+		private boolean visit(int id) {
+			if(marks[id] == epoch) return false;
+			marks[id] = epoch;
+			return true;
+		}
+	}
 }
\ No newline at end of file
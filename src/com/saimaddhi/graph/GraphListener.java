@@ -0,0 +1,32 @@
+package com.saimaddhi.graph;
+/**
+ * Receives the changes made to a graph right after they happen. Every method does nothing by default
+ * @author saimaddhi
+ *
+ */
+public interface GraphListener {
+	/**
+	 * Called after a vertex is added to the graph
+	 * @param vertex the new vertex
+	 */
+	default void vertexAdded(Vertex vertex) {
+	}
+	/**
+	 * Called after a vertex is removed from the graph because it lost its last edge
+	 * @param vertex the removed vertex
+	 */
+	default void vertexRemoved(Vertex vertex) {
+	}
+	/**
+	 * Called after an edge is added to the graph
+	 * @param edge the new edge
+	 */
+	default void edgeAdded(Edge edge) {
+	}
+	/**
+	 * Called after an edge is removed from the graph, before its isolated vertices are reported removed
+	 * @param edge the removed edge
+	 */
+	default void edgeRemoved(Edge edge) {
+	}
+}
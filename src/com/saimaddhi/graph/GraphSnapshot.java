@@ -0,0 +1,112 @@
+package com.saimaddhi.graph;
+import java.util.ArrayList;
+/**
+ * An immutable view of a graph pinned to one version. A snapshot is cheap to take, reading it never blocks the thread
+ * changing the graph, and it keeps showing the same vertices and edges however the graph changes afterwards. Every
+ * algorithm runs on it through {@link #freeze()} or {@link #toGraph()}. The vertex and edge objects are shared with
+ * the graph, so their neighbor lists show the graph as it is now and should not be used
+ * @author saimaddhi
+ *
+ */
+public class GraphSnapshot {
+	/**
+	 * The head of the version log this snapshot is pinned to
+	 */
+	private final VersionLog.Head head;
+	/**
+	 * The compressed snapshot of this version, null until first asked for
+	 */
+	private volatile CsrGraph frozen;
+	/**
+	 * Constructor for the snapshot of the specified head
+	 * @param head the head
+	 */
+	GraphSnapshot(VersionLog.Head head) {
+		this.head = head;
+	}
+	/**
+	 * Getter for the graph this snapshot was taken of
+	 * @return the graph
+	 */
+	public Graph getGraph() {
+		return head.graph;
+	}
+	/**
+	 * Getter for the version this snapshot is pinned to, later snapshots have higher versions
+	 * @return the version
+	 */
+	public long getVersion() {
+		return head.version;
+	}
+	/**
+	 * Getter for the number of vertices
+	 * @return the number of vertices
+	 */
+	public int vertexCount() {
+		return head.vertexCount;
+	}
+	/**
+	 * Getter for the number of edges
+	 * @return the number of edges
+	 */
+	public int edgeCount() {
+		return head.edgeCount;
+	}
+	/**
+	 * Returns the vertices of this version
+	 * @return the list of vertices in the order they were added
+	 */
+	public ArrayList<Vertex> getVertices() {
+		ArrayList<Vertex> result = new ArrayList<Vertex>(head.vertexCount);
+		for(int i = 0; i < head.vertexRecords; i++) {
+			VersionLog.Chunk chunk = head.vertexChunks[i / VersionLog.CHUNK];
+			if(chunk.alive(i % VersionLog.CHUNK, head.version)) result.add((Vertex) chunk.items[i % VersionLog.CHUNK]);
+		}
+		return result;
+	}
+	/**
+	 * Returns the edges of this version
+	 * @return the list of edges in the order they were added
+	 */
+	public ArrayList<Edge> getEdges() {
+		ArrayList<Edge> result = new ArrayList<Edge>(head.edgeCount);
+		for(int i = 0; i < head.edgeRecords; i++) {
+			VersionLog.Chunk chunk = head.edgeChunks[i / VersionLog.CHUNK];
+			if(chunk.alive(i % VersionLog.CHUNK, head.version)) result.add((Edge) chunk.items[i % VersionLog.CHUNK]);
+		}
+		return result;
+	}
+	/**
+	 * Returns the compressed sparse row snapshot of this version, built on the first call and cached after
+	 * @return the snapshot
+	 */
+	public CsrGraph freeze() {
+		CsrGraph snapshot = frozen;
+		if(snapshot == null) {
+			snapshot = new CsrGraph(getVertices(), getEdges());
+			frozen = snapshot;
+		}
+		return snapshot;
+	}
+	/**
+	 * Copies this version into a new graph that belongs to the caller
+	 * @return the copy, with the same labels and edges but its own vertex ids
+	 */
+	public Graph toGraph() {
+		Graph copy = new Graph();
+		ArrayList<Vertex> vertices = getVertices();
+		int ids = 0;
+		for(Vertex vertex : vertices) {
+			ids = Math.max(ids, vertex.getId() + 1);
+		}
+		Vertex[] copies = new Vertex[ids];
+		for(Vertex vertex : vertices) {
+			copies[vertex.getId()] = copy.addVertex(vertex.getLabel());
+		}
+		for(Edge edge : getEdges()) {
+			copy.addEdgeAllowDuplicates(copies[edge.getStart().getId()], copies[edge.getEnd().getId()],
+					edge.getWeight());
+		}
+		return copy;
+	}
+}
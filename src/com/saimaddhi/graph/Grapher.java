@@ -38,6 +38,10 @@ public class Grapher {
 	 * True if the graph is currently showing the MST
 	 */
 	private boolean mstMode;
+	/**
+	 * The minimum spanning tree of the graph, kept up to date as edges are added
+	 */
+	private DynamicMst mst;
 	/**
 	 * The constructor of this class that takes in a graph to be represented
 	 * @param graph the graph being represented
@@ -50,6 +54,7 @@ public class Grapher {
 		vertexButton = new AddVertexButton(1035, 185, 50);
 		mstButton = new MSTButton(1035, 75, 50);
 		mstMode = false;
+		mst = new DynamicMst(graph);
 		
 		setup();
 		setUpVertices();
@@ -111,15 +116,13 @@ public class Grapher {
 				ArrayList<Edge> tree = new ArrayList<Edge>();
 				if(!shown) {
 					shown = true;
-					tree = graph.minimumSpanningTree();
+					tree = mst.getTree();
 					StdDraw.clear();
 					mstButton.checkMouse();
 					draw();
 					StdDraw.setPenColor(87, 248, 95);
 					for(Edge e : tree) {
-						graph.addEdgeAllowDuplicates(e.getStart().getLabel(), e.getEnd().getLabel(), e.getWeight());
-						graph.getEdges().get(graph.getEdges().size()-1).draw();
-						graph.removeEdge(graph.getEdges().get(graph.getEdges().size()-1));
+						e.draw();
 					}
 					//Draw Vertices
 					StdDraw.setPenColor(87, 248, 95);
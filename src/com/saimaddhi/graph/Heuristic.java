@@ -0,0 +1,17 @@
+package com.saimaddhi.graph;
+/**
+ * A lower bound on the distance between two vertices of a snapshot, used to guide A* towards the target. The bound
+ * must never exceed the true distance for A* to return shortest paths, and searches settle fewer vertices the closer it
+ * gets to the true distance
+ * @author saimaddhi
+ *
+ */
+public interface Heuristic {
+	/**
+	 * Returns a lower bound on the distance from the vertex to the target
+	 * @param vertex the dense id of the vertex
+	 * @param target the dense id of the target
+	 * @return the estimate, at least 0
+	 */
+	long estimate(int vertex, int target);
+}
@@ -0,0 +1,77 @@
+package com.saimaddhi.graph;
+import java.util.Arrays;
+/**
+ * The ALT heuristic (Goldberg and Harrelson), which precomputes the distances from a few landmark vertices and bounds
+ * the distance between two vertices by the triangle inequality, |d(L,t) - d(L,v)| for every landmark L. Landmarks are
+ * chosen one at a time as the vertex farthest from those already chosen, starting a new component whenever one has
+ * no landmark yet
+ * @author saimaddhi
+ *
+ */
+public class LandmarkHeuristic implements Heuristic {
+	/**
+	 * The dense ids of the landmarks
+	 */
+	private int[] landmarks;
+	/**
+	 * The distance from each landmark to every vertex
+	 */
+	private long[][] distances;
+	/**
+	 * Constructor that picks the specified number of landmarks and computes their distances
+	 * @param graph the snapshot
+	 * @param count the number of landmarks
+	 * @throws IllegalArgumentException if the snapshot has negative weights
+	 */
+	public LandmarkHeuristic(CsrGraph graph, int count) {
+		int n = graph.vertexCount();
+		count = Math.min(count, n);
+		landmarks = new int[count];
+		distances = new long[count][];
+		
+		//The first landmark is the farthest vertex from vertex 0 and each next one is the farthest from all chosen
+		long[] nearest = new long[n];
+		Arrays.fill(nearest, ShortestPaths.UNREACHABLE);
+		int next = (n > 0) ? farthest(Dijkstra.shortestPaths(graph, 0).getDistances()) : 0;
+		for(int i = 0; i < count; i++) {
+			landmarks[i] = next;
+			distances[i] = Dijkstra.shortestPaths(graph, next).getDistances();
+			for(int v = 0; v < n; v++) {
+				nearest[v] = Math.min(nearest[v], distances[i][v]);
+			}
+			next = farthest(nearest);
+		}
+	}
+	/**
+	 * Returns the vertex with the largest distance, an unreachable one if there is any
+	 * @param distances the distances
+	 * @return the dense id of the vertex
+	 */
+	private static int farthest(long[] distances) {
+		int best = 0;
+		for(int v = 1; v < distances.length; v++) {
+			if(distances[v] > distances[best]) best = v;
+		}
+		return best;
+	}
+	/**
+	 * Getter for the dense ids of the landmarks
+	 * @return the landmarks
+	 */
+	public int[] getLandmarks() {
+		return landmarks;
+	}
+	/**
+	 * Returns the largest triangle inequality bound over the landmarks that reach both vertices
+	 */
+	public long estimate(int vertex, int target) {
+		long best = 0;
+		for(long[] d : distances) {
+			long a = d[vertex];
+			long b = d[target];
+			if(a == ShortestPaths.UNREACHABLE || b == ShortestPaths.UNREACHABLE) continue;
+			best = Math.max(best, Math.abs(a - b));
+		}
+		return best;
+	}
+}
@@ -0,0 +1,316 @@
+package com.saimaddhi.graph;
+import java.util.Arrays;
+
+import com.saimaddhi.graph.primitive.IntStack;
+/**
+ * A link-cut tree (Sleator and Tarjan) over int nodes that answers connectivity and path maximum queries in amortized
+ * logarithmic time. Nodes are either plain, standing for vertices, or keyed, standing for edges, and a path maximum is
+ * the keyed node on the path with the largest (weight, rank)
+ * @author saimaddhi
+ *
+ */
+class LinkCutTree {
+	/**
+	 * The left child of each node in its splay tree, -1 if there is none
+	 */
+	private int[] left;
+	/**
+	 * The right child of each node in its splay tree, -1 if there is none
+	 */
+	private int[] right;
+	/**
+	 * The splay tree parent or path parent of each node, -1 if there is none
+	 */
+	private int[] parent;
+	/**
+	 * True if the children of the node's splay subtree still have to be swapped
+	 */
+	private boolean[] flip;
+	/**
+	 * The weight of each keyed node
+	 */
+	private int[] weights;
+	/**
+	 * The tie breaking rank of each keyed node, -1 for plain nodes
+	 */
+	private long[] ranks;
+	/**
+	 * The keyed node with the largest key in each node's splay subtree, -1 if there is none
+	 */
+	private int[] max;
+	/**
+	 * The number of nodes ever allocated
+	 */
+	private int size;
+	/**
+	 * The nodes that were freed and can be given out again
+	 */
+	private IntStack free;
+	/**
+	 * The path from a node up to its splay root, reused by splay
+	 */
+	private IntStack path;
+	/**
+	 * The default constructor
+	 */
+	LinkCutTree() {
+		left = new int[16];
+		right = new int[16];
+		parent = new int[16];
+		flip = new boolean[16];
+		weights = new int[16];
+		ranks = new long[16];
+		max = new int[16];
+		size = 0;
+		free = new IntStack();
+		path = new IntStack();
+	}
+	/**
+	 * Adds a plain node that is its own tree
+	 * @return the node
+	 */
+	int addNode() {
+		return allocate(0, -1);
+	}
+	/**
+	 * Adds a keyed node that is its own tree
+	 * @param weight the weight
+	 * @param rank the tie breaking rank, at least 0
+	 * @return the node
+	 */
+	int addNode(int weight, long rank) {
+		return allocate(weight, rank);
+	}
+	/**
+	 * Frees a node that is its own tree so it can be given out again
+	 * @param x the node
+	 */
+	void removeNode(int x) {
+		free.push(x);
+	}
+	/**
+	 * Returns the weight of a keyed node
+	 * @param x the node
+	 * @return the weight
+	 */
+	int weight(int x) {
+		return weights[x];
+	}
+	/**
+	 * Returns true if the two nodes are in the same tree
+	 * @param x one node
+	 * @param y the other node
+	 * @return true if they are connected
+	 */
+	boolean connected(int x, int y) {
+		return x == y || findRoot(x) == findRoot(y);
+	}
+	/**
+	 * Joins the trees of two nodes with an edge between them, the nodes must be in different trees
+	 * @param x one node
+	 * @param y the other node
+	 */
+	void link(int x, int y) {
+		makeRoot(x);
+		parent[x] = y;
+	}
+	/**
+	 * Removes the edge between two adjacent nodes
+	 * @param x one node
+	 * @param y the other node
+	 */
+	void cut(int x, int y) {
+		makeRoot(x);
+		access(y);
+		splay(y);
+		if(left[y] == x && right[x] == -1) {
+			left[y] = -1;
+			parent[x] = -1;
+			update(y);
+		}
+	}
+	/**
+	 * Returns the keyed node with the largest key on the path between two connected nodes
+	 * @param x one end of the path
+	 * @param y the other end of the path
+	 * @return the node, or -1 if the path has no keyed nodes
+	 */
+	int pathMax(int x, int y) {
+		makeRoot(x);
+		access(y);
+		splay(y);
+		return max[y];
+	}
+	/**
+	 * Returns true if the key of node a is smaller than the key of node b
+	 * @param a a keyed node
+	 * @param b a keyed node
+	 * @return true if a comes first
+	 */
+	boolean less(int a, int b) {
+		if(weights[a] != weights[b]) return weights[a] < weights[b];
+		return ranks[a] < ranks[b];
+	}
+	/**
+	 * Gives out a free node or a new one
+	 * @param weight the weight
+	 * @param rank the rank, -1 for plain nodes
+	 * @return the node
+	 */
+	private int allocate(int weight, long rank) {
+		int x;
+		if(!free.isEmpty()) {
+			x = free.pop();
+		} else {
+			if(size == left.length) grow();
+			x = size++;
+		}
+		left[x] = -1;
+		right[x] = -1;
+		parent[x] = -1;
+		flip[x] = false;
+		weights[x] = weight;
+		ranks[x] = rank;
+		max[x] = (rank >= 0) ? x : -1;
+		return x;
+	}
+	/**
+	 * Doubles the capacity of the node arrays
+	 */
+	private void grow() {
+		int capacity = left.length * 2;
+		left = Arrays.copyOf(left, capacity);
+		right = Arrays.copyOf(right, capacity);
+		parent = Arrays.copyOf(parent, capacity);
+		flip = Arrays.copyOf(flip, capacity);
+		weights = Arrays.copyOf(weights, capacity);
+		ranks = Arrays.copyOf(ranks, capacity);
+		max = Arrays.copyOf(max, capacity);
+	}
+	/**
+	 * Returns true if the node is the root of its splay tree
+	 * @param x the node
+	 * @return true if the node has no splay tree parent
+	 */
+	private boolean isSplayRoot(int x) {
+		int p = parent[x];
+		return p == -1 || (left[p] != x && right[p] != x);
+	}
+	/**
+	 * Applies a pending flip of the node to its children
+	 * @param x the node
+	 */
+	private void push(int x) {
+		if(flip[x]) {
+			int child = left[x];
+			left[x] = right[x];
+			right[x] = child;
+			if(left[x] != -1) flip[left[x]] = !flip[left[x]];
+			if(right[x] != -1) flip[right[x]] = !flip[right[x]];
+			flip[x] = false;
+		}
+	}
+	/**
+	 * Recomputes the maximum of the node's splay subtree from its children
+	 * @param x the node
+	 */
+	private void update(int x) {
+		int best = (ranks[x] >= 0) ? x : -1;
+		int child = left[x];
+		if(child != -1 && max[child] != -1 && (best == -1 || less(best, max[child]))) best = max[child];
+		child = right[x];
+		if(child != -1 && max[child] != -1 && (best == -1 || less(best, max[child]))) best = max[child];
+		max[x] = best;
+	}
+	/**
+	 * Rotates the node above its splay tree parent
+	 * @param x the node
+	 */
+	private void rotate(int x) {
+		int p = parent[x];
+		int g = parent[p];
+		if(!isSplayRoot(p)) {
+			if(left[g] == p) {
+				left[g] = x;
+			} else {
+				right[g] = x;
+			}
+		}
+		parent[x] = g;
+		if(left[p] == x) {
+			left[p] = right[x];
+			if(right[x] != -1) parent[right[x]] = p;
+			right[x] = p;
+		} else {
+			right[p] = left[x];
+			if(left[x] != -1) parent[left[x]] = p;
+			left[x] = p;
+		}
+		parent[p] = x;
+		update(p);
+		update(x);
+	}
+	/**
+	 * Moves the node to the root of its splay tree
+	 * @param x the node
+	 */
+	private void splay(int x) {
+		path.clear();
+		int y = x;
+		path.push(y);
+		while(!isSplayRoot(y)) {
+			y = parent[y];
+			path.push(y);
+		}
+		while(!path.isEmpty()) {
+			push(path.pop());
+		}
+		while(!isSplayRoot(x)) {
+			int p = parent[x];
+			if(!isSplayRoot(p)) {
+				int g = parent[p];
+				rotate((left[g] == p) == (left[p] == x) ? p : x);
+			}
+			rotate(x);
+		}
+	}
+	/**
+	 * Makes the path from the root of the node's tree to the node preferred, with the node at the root of its splay tree
+	 * @param x the node
+	 */
+	private void access(int x) {
+		int last = -1;
+		for(int y = x; y != -1; y = parent[y]) {
+			splay(y);
+			right[y] = last;
+			update(y);
+			last = y;
+		}
+		splay(x);
+	}
+	/**
+	 * Makes the node the root of its tree
+	 * @param x the node
+	 */
+	private void makeRoot(int x) {
+		access(x);
+		flip[x] = !flip[x];
+		push(x);
+	}
+	/**
+	 * Returns the root of the node's tree
+	 * @param x the node
+	 * @return the root
+	 */
+	private int findRoot(int x) {
+		access(x);
+		int y = x;
+		push(y);
+		while(left[y] != -1) {
+			y = left[y];
+			push(y);
+		}
+		splay(y);
+		return y;
+	}
+}
@@ -0,0 +1,43 @@
+package com.saimaddhi.graph;
+/**
+ * The algorithms Graph.minimumSpanningTree can use. Ties in weight are always broken by the position of the edge in
+ * the edge list, so every strategy returns the same edges in the same order
+ * @author saimaddhi
+ *
+ */
+public enum MstStrategy {
+	/**
+	 * Sorts every edge by weight and adds the ones that join two components
+	 */
+	KRUSKAL,
+	/**
+	 * Finds the cheapest edge out of every component in parallel and contracts the components, round by round
+	 */
+	BORUVKA,
+	/**
+	 * Grows the tree one vertex at a time from an indexed heap of the cheapest edges into the tree
+	 */
+	PRIM,
+	/**
+	 * Partitions the edges around a pivot weight, solves the light part first and drops the heavy edges that would
+	 * close a cycle before sorting them
+	 */
+	FILTER_KRUSKAL,
+	/**
+	 * Uses PRIM on dense graphs and KRUSKAL otherwise
+	 */
+	AUTO;
+	/**
+	 * The edges per squared vertex at which a graph counts as dense
+	 */
+	private static final double DENSE = 0.1;
+	/**
+	 * Returns the strategy AUTO uses for a graph of the specified size
+	 * @param vertices the number of vertices
+	 * @param edges the number of edges
+	 * @return PRIM if the density E/V^2 is at least 0.1, otherwise KRUSKAL
+	 */
+	static MstStrategy forSize(int vertices, int edges) {
+		return (edges >= DENSE * vertices * vertices) ? PRIM : KRUSKAL;
+	}
+}
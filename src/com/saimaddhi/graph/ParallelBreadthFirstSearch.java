@@ -0,0 +1,191 @@
+package com.saimaddhi.graph;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+import com.saimaddhi.graph.primitive.IntList;
+/**
+ * A level synchronous, direction optimizing breadth first search over a CSR snapshot that runs on the common fork join
+ * pool. Small frontiers are expanded top down from the frontier, and large frontiers are expanded bottom up by letting
+ * every unvisited vertex look for a parent in the frontier (Beamer, Asanovic and Patterson)
+ * @author saimaddhi
+ *
+ */
+public class ParallelBreadthFirstSearch {
+	/**
+	 * Switch to bottom up once the frontier's edges exceed the unexplored edges divided by this
+	 */
+	private static final int ALPHA = 14;
+	/**
+	 * Switch back to top down once the frontier holds fewer than the vertices divided by this
+	 */
+	private static final int BETA = 24;
+	/**
+	 * The number of frontier entries or vertices handled by one task, a multiple of 64 so that bottom up tasks own whole
+	 * words of the frontier bitmap
+	 */
+	private static final int CHUNK = 4096;
+	/**
+	 * This class only has static methods
+	 */
+	private ParallelBreadthFirstSearch() {
+	}
+	/**
+	 * Returns the breadth first depth of every vertex from the specified source
+	 * @param graph the snapshot to search
+	 * @param source the dense id of the source vertex
+	 * @return the depth of each dense id, or -1 for vertices that cannot be reached
+	 */
+	public static int[] depths(CsrGraph graph, int source) {
+		int n = graph.vertexCount();
+		int[] offsets = graph.getOffsets();
+		AtomicIntegerArray depth = new AtomicIntegerArray(n);
+		for(int v = 0; v < n; v++) {
+			depth.lazySet(v, -1);
+		}
+		depth.set(source, 0);
+		
+		int[] frontier = {source};
+		long[] frontierBits = null;
+		long frontierSize = 1;
+		long frontierEdges = offsets[source + 1] - offsets[source];
+		long unexploredEdges = offsets[n] - frontierEdges;
+		boolean bottomUp = false;
+		int level = 0;
+		while(frontierSize > 0) {
+			if(!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+				bottomUp = true;
+				frontierBits = toBits(frontier, n);
+			} else if(bottomUp && frontierSize < n / BETA) {
+				bottomUp = false;
+				frontier = toList(frontierBits);
+			}
+			long[] stats;
+			if(bottomUp) {
+				long[] next = new long[(n + 63) >>> 6];
+				stats = bottomUpStep(graph, depth, frontierBits, next, level + 1);
+				frontierBits = next;
+			} else {
+				frontier = topDownStep(graph, depth, frontier, level + 1);
+				stats = new long[] {frontier.length,
+						Arrays.stream(frontier).parallel().mapToLong(v -> offsets[v + 1] - offsets[v]).sum()};
+			}
+			frontierSize = stats[0];
+			frontierEdges = stats[1];
+			unexploredEdges -= frontierEdges;
+			level++;
+		}
+		
+		int[] result = new int[n];
+		for(int v = 0; v < n; v++) {
+			result[v] = depth.get(v);
+		}
+		return result;
+	}
+	/**
+	 * Expands the frontier by claiming the unvisited neighbors of every frontier vertex
+	 * @param graph the snapshot being searched
+	 * @param depth the depth of every vertex, -1 if not yet visited
+	 * @param frontier the vertices of the current level
+	 * @param nextLevel the depth of the next level
+	 * @return the vertices of the next level
+	 */
+	private static int[] topDownStep(CsrGraph graph, AtomicIntegerArray depth, int[] frontier, int nextLevel) {
+		int[] offsets = graph.getOffsets();
+		int[] targets = graph.getTargets();
+		int chunks = (frontier.length + CHUNK - 1) / CHUNK;
+		int[][] parts = IntStream.range(0, chunks).parallel().mapToObj(c -> {
+			IntList local = new IntList();
+			for(int i = c * CHUNK; i < Math.min(frontier.length, (c + 1) * CHUNK); i++) {
+				int v = frontier[i];
+				for(int j = offsets[v]; j < offsets[v + 1]; j++) {
+					int w = targets[j];
+					if(depth.get(w) == -1 && depth.compareAndSet(w, -1, nextLevel)) {
+						local.add(w);
+					}
+				}
+			}
+			return local.toArray();
+		}).toArray(int[][]::new);
+		
+		int size = 0;
+		for(int[] part : parts) {
+			size += part.length;
+		}
+		int[] next = new int[size];
+		size = 0;
+		for(int[] part : parts) {
+			System.arraycopy(part, 0, next, size, part.length);
+			size += part.length;
+		}
+		return next;
+	}
+	/**
+	 * Expands the frontier by letting every unvisited vertex look for a neighbor in the frontier
+	 * @param graph the snapshot being searched
+	 * @param depth the depth of every vertex, -1 if not yet visited
+	 * @param frontier the bitmap of the current level
+	 * @param next the bitmap the next level is written into
+	 * @param nextLevel the depth of the next level
+	 * @return the number of vertices and the number of edges of the next level
+	 */
+	private static long[] bottomUpStep(CsrGraph graph, AtomicIntegerArray depth, long[] frontier, long[] next,
+			int nextLevel) {
+		int[] offsets = graph.getOffsets();
+		int[] targets = graph.getTargets();
+		int n = graph.vertexCount();
+		int chunks = (n + CHUNK - 1) / CHUNK;
+		return IntStream.range(0, chunks).parallel().mapToObj(c -> {
+			long count = 0;
+			long edges = 0;
+			for(int v = c * CHUNK; v < Math.min(n, (c + 1) * CHUNK); v++) {
+				if(depth.get(v) != -1) continue;
+				for(int j = offsets[v]; j < offsets[v + 1]; j++) {
+					int u = targets[j];
+					if((frontier[u >>> 6] & (1L << u)) != 0) {
+						depth.set(v, nextLevel);
+						next[v >>> 6] |= 1L << v;
+						count++;
+						edges += offsets[v + 1] - offsets[v];
+						break;
+					}
+				}
+			}
+			return new long[] {count, edges};
+		}).reduce(new long[2], (a, b) -> new long[] {a[0] + b[0], a[1] + b[1]});
+	}
+	/**
+	 * Converts a frontier list into a bitmap
+	 * @param frontier the frontier list
+	 * @param n the number of vertices
+	 * @return the bitmap
+	 */
+	private static long[] toBits(int[] frontier, int n) {
+		long[] bits = new long[(n + 63) >>> 6];
+		for(int v : frontier) {
+			bits[v >>> 6] |= 1L << v;
+		}
+		return bits;
+	}
+	/**
+	 * Converts a frontier bitmap into a list
+	 * @param bits the bitmap
+	 * @return the frontier list in increasing id order
+	 */
+	private static int[] toList(long[] bits) {
+		int size = 0;
+		for(long word : bits) {
+			size += Long.bitCount(word);
+		}
+		int[] list = new int[size];
+		size = 0;
+		for(int w = 0; w < bits.length; w++) {
+			long word = bits[w];
+			while(word != 0) {
+				list[size++] = (w << 6) + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+			}
+		}
+		return list;
+	}
+}
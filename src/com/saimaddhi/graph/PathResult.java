@@ -0,0 +1,90 @@
+package com.saimaddhi.graph;
+import java.util.ArrayList;
+/**
+ * A shortest path between two vertices of a snapshot, together with the number of vertices the search settled
+ * @author saimaddhi
+ *
+ */
+public class PathResult {
+	/**
+	 * The snapshot the path was found in
+	 */
+	private CsrGraph graph;
+	/**
+	 * The dense ids of the path from source to target, empty if the target cannot be reached
+	 */
+	private int[] ids;
+	/**
+	 * The length of the path, ShortestPaths.UNREACHABLE if there is none
+	 */
+	private long distance;
+	/**
+	 * The number of vertices the search settled
+	 */
+	private int settled;
+	/**
+	 * Constructor for the result of a search
+	 * @param graph the snapshot
+	 * @param ids the dense ids of the path
+	 * @param distance the length of the path
+	 * @param settled the number of settled vertices
+	 */
+	PathResult(CsrGraph graph, int[] ids, long distance, int settled) {
+		this.graph = graph;
+		this.ids = ids;
+		this.distance = distance;
+		this.settled = settled;
+	}
+	/**
+	 * Returns true if the target can be reached from the source
+	 * @return true if there is a path
+	 */
+	public boolean isReachable() {
+		return distance != ShortestPaths.UNREACHABLE;
+	}
+	/**
+	 * Getter for the length of the path
+	 * @return the distance, or ShortestPaths.UNREACHABLE if there is no path
+	 */
+	public long getDistance() {
+		return distance;
+	}
+	/**
+	 * Getter for the dense ids of the path from source to target
+	 * @return the ids, empty if there is no path
+	 */
+	public int[] getIds() {
+		return ids;
+	}
+	/**
+	 * Returns the vertices of the path from source to target
+	 * @return the vertices, empty if there is no path
+	 */
+	public ArrayList<Vertex> getVertices() {
+		return graph.toVertices(ids);
+	}
+	/**
+	 * Returns the labels of the vertices of the path from source to target
+	 * @return the labels, empty if there is no path
+	 */
+	public ArrayList<String> getLabels() {
+		ArrayList<String> labels = new ArrayList<String>(ids.length);
+		for(int id : ids) {
+			labels.add(graph.getLabel(id));
+		}
+		return labels;
+	}
+	/**
+	 * Getter for the number of vertices the search settled before it stopped
+	 * @return the number of settled vertices
+	 */
+	public int getSettled() {
+		return settled;
+	}
+	/**
+	 * The toString of the path in the format: [a, b, c] : distance, or [] : unreachable if there is no path
+	 */
+	public String toString() {
+		return getLabels() + " : " + (isReachable() ? Long.toString(distance) : "unreachable");
+	}
+}
@@ -0,0 +1,58 @@
+package com.saimaddhi.graph;
+import java.util.ArrayList;
+
+import com.saimaddhi.graph.primitive.IndexedMinHeap;
+import com.saimaddhi.graph.primitive.IntList;
+/**
+ * An eager implementation of Prim's minimum spanning forest algorithm over a CSR snapshot. Every vertex outside the
+ * tree is kept in an indexed d-ary heap keyed by its cheapest edge into the tree, so no global sort of the edges is
+ * needed. This suits dense graphs, where the edges far outnumber the vertices
+ * @author saimaddhi
+ *
+ */
+public class PrimMst {
+	/**
+	 * The widest heap used, wider heaps stop paying off once a node's children span several cache lines
+	 */
+	private static final int MAX_ARITY = 64;
+	/**
+	 * This class only has static methods
+	 */
+	private PrimMst() {
+	}
+	/**
+	 * Returns the edges of the minimum spanning forest of the snapshot. Edges are compared by weight and then by edge
+	 * id, so the result matches the other strategies
+	 * @param graph the snapshot
+	 * @return the list of edges part of the mst, in order of weight
+	 */
+	public static ArrayList<Edge> minimumSpanningTree(CsrGraph graph) {
+		int n = graph.vertexCount();
+		int[] offsets = graph.getOffsets();
+		int[] targets = graph.getTargets();
+		int[] weights = graph.getWeights();
+		int[] edgeIds = graph.getEdgeIds();
+		int arity = Math.max(2, Math.min(MAX_ARITY, graph.edgeCount() / Math.max(1, n)));
+		IndexedMinHeap heap = new IndexedMinHeap(n, arity);
+		boolean[] inTree = new boolean[n];
+		IntList tree = new IntList(Math.max(1, n - 1));
+		
+		//Grow one tree from every vertex not yet reached
+		for(int root = 0; root < n; root++) {
+			if(inTree[root]) continue;
+			int v = root;
+			while(true) {
+				inTree[v] = true;
+				for(int i = offsets[v]; i < offsets[v + 1]; i++) {
+					int w = targets[i];
+					if(!inTree[w]) heap.offer(w, ((long) weights[i] << 32) | edgeIds[i]);
+				}
+				if(heap.isEmpty()) break;
+				long key = heap.peekKey();
+				v = heap.poll();
+				tree.add((int) key);
+			}
+		}
+		return graph.edgesByWeight(tree.toArray());
+	}
+}
@@ -0,0 +1,95 @@
+package com.saimaddhi.graph;
+import java.util.ArrayList;
+import java.util.Collections;
+/**
+ * The shortest paths from one source to every vertex of a snapshot, as arrays indexed by the snapshot's dense ids
+ * @author saimaddhi
+ *
+ */
+public class ShortestPaths {
+	/**
+	 * The distance of a vertex that cannot be reached from the source
+	 */
+	public static final long UNREACHABLE = Long.MAX_VALUE;
+	/**
+	 * The snapshot the paths were computed on
+	 */
+	private CsrGraph graph;
+	/**
+	 * The dense id of the source
+	 */
+	private int source;
+	/**
+	 * The distance of each vertex from the source
+	 */
+	private long[] distances;
+	/**
+	 * The vertex before each vertex on its shortest path, -1 for the source and unreachable vertices
+	 */
+	private int[] parents;
+	/**
+	 * Constructor that wraps the result of a search
+	 * @param graph the snapshot
+	 * @param source the dense id of the source
+	 * @param distances the distance of each vertex
+	 * @param parents the parent of each vertex
+	 */
+	ShortestPaths(CsrGraph graph, int source, long[] distances, int[] parents) {
+		this.graph = graph;
+		this.source = source;
+		this.distances = distances;
+		this.parents = parents;
+	}
+	/**
+	 * Getter for the snapshot the paths were computed on
+	 * @return the snapshot
+	 */
+	public CsrGraph getGraph() {
+		return graph;
+	}
+	/**
+	 * Getter for the source vertex
+	 * @return the source
+	 */
+	public Vertex getSource() {
+		return graph.getVertex(source);
+	}
+	/**
+	 * Returns the distance from the source to the vertex with the specified label
+	 * @param label the label
+	 * @return the distance, or UNREACHABLE if the vertex cannot be reached or does not exist
+	 */
+	public long distance(String label) {
+		int id = graph.indexOf(label);
+		return (id < 0) ? UNREACHABLE : distances[id];
+	}
+	/**
+	 * Returns the shortest path from the source to the vertex with the specified label
+	 * @param label the label
+	 * @return the vertices of the path starting at the source, empty if the vertex cannot be reached
+	 */
+	public ArrayList<Vertex> pathTo(String label) {
+		ArrayList<Vertex> path = new ArrayList<Vertex>();
+		int id = graph.indexOf(label);
+		if(id < 0 || distances[id] == UNREACHABLE) return path;
+		for(int v = id; v != -1; v = parents[v]) {
+			path.add(graph.getVertex(v));
+		}
+		Collections.reverse(path);
+		return path;
+	}
+	/**
+	 * Getter for the distance of every vertex, indexed by dense id. The array is shared, not copied
+	 * @return the distances, UNREACHABLE for vertices that cannot be reached
+	 */
+	public long[] getDistances() {
+		return distances;
+	}
+	/**
+	 * Getter for the parent of every vertex on its shortest path, indexed by dense id. The array is shared, not copied
+	 * @return the parents, -1 for the source and vertices that cannot be reached
+	 */
+	public int[] getParents() {
+		return parents;
+	}
+}
@@ -0,0 +1,113 @@
+package com.saimaddhi.graph;
+import java.util.Arrays;
+/**
+ * A disjoint-set forest over the integer ids 0 to n-1 that uses path compression and union by rank
+ * @author saimaddhi
+ *
+ */
+public class UnionFind {
+	/**
+	 * The parent of each id, a root is its own parent
+	 */
+	private int[] parent;
+	/**
+	 * The upper bound on the height of the tree rooted at each id
+	 */
+	private byte[] rank;
+	/**
+	 * The number of disjoint sets
+	 */
+	private int count;
+	/**
+	 * Constructor that puts each of the ids 0 to n-1 into its own set
+	 * @param n the number of ids
+	 */
+	public UnionFind(int n) {
+		parent = new int[n];
+		rank = new byte[n];
+		count = n;
+		for(int i = 0; i < n; i++) {
+			parent[i] = i;
+		}
+	}
+	/**
+	 * Adds the ids from the current size up to n-1, each in its own set
+	 * @param n the new number of ids
+	 */
+	void ensureCapacity(int n) {
+		int size = parent.length;
+		if(n <= size) return;
+		parent = Arrays.copyOf(parent, Math.max(n, size + (size >> 1)));
+		rank = Arrays.copyOf(rank, parent.length);
+		for(int i = size; i < parent.length; i++) {
+			parent[i] = i;
+		}
+		count += parent.length - size;
+	}
+	/**
+	 * Returns the root of the set that contains the specified id, compressing the path along the way
+	 * @param id the id
+	 * @return the root of the set
+	 */
+	public int find(int id) {
+		int root = id;
+		while(parent[root] != root) {
+			root = parent[root];
+		}
+		while(parent[id] != root) {
+			int next = parent[id];
+			parent[id] = root;
+			id = next;
+		}
+		return root;
+	}
+	/**
+	 * Returns the root of the set that contains the specified id without compressing the path, so that several threads
+	 * may call it at once as long as no sets are merged meanwhile
+	 * @param id the id
+	 * @return the root of the set
+	 */
+	public int root(int id) {
+		while(parent[id] != id) {
+			id = parent[id];
+		}
+		return id;
+	}
+	/**
+	 * Merges the sets that contain the two ids
+	 * @param a the first id
+	 * @param b the second id
+	 * @return true if the ids were in different sets before the call
+	 */
+	public boolean union(int a, int b) {
+		int rootA = find(a);
+		int rootB = find(b);
+		if(rootA == rootB) return false;
+		if(rank[rootA] < rank[rootB]) {
+			parent[rootA] = rootB;
+		} else if(rank[rootA] > rank[rootB]) {
+			parent[rootB] = rootA;
+		} else {
+			parent[rootB] = rootA;
+			rank[rootA]++;
+		}
+		count--;
+		return true;
+	}
+	/**
+	 * Returns true if both ids are in the same set
+	 * @param a the first id
+	 * @param b the second id
+	 * @return true if the ids are connected
+	 */
+	public boolean connected(int a, int b) {
+		return find(a) == find(b);
+	}
+	/**
+	 * Getter for the number of disjoint sets
+	 * @return the number of sets
+	 */
+	public int count() {
+		return count;
+	}
+}
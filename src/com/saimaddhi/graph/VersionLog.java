@@ -0,0 +1,306 @@
+package com.saimaddhi.graph;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+/**
+ * The multi version history of a graph that snapshots are read from. Every change to the graph gets the next version
+ * number and appends a record, or stamps the record it removes, in chunked logs of vertices and edges. The chunks are
+ * shared by all versions, and after each change an immutable head naming the current chunks and record counts is
+ * published through a volatile field, so readers pinned to a head never lock and the writer never waits for them.
+ * Once most records of a log are dead the live ones are copied into fresh chunks, and the old chunks are garbage
+ * collected when the last snapshot that reads them is gone
+ * @author saimaddhi
+ *
+ */
+class VersionLog implements GraphListener {
+	/**
+	 * The number of records in a chunk, a power of two
+	 */
+	static final int CHUNK = 1 << 12;
+	/**
+	 * The removal version of a record that has not been removed
+	 */
+	static final long LIVE = Long.MAX_VALUE;
+	/**
+	 * The graph whose history is kept
+	 */
+	private Graph graph;
+	/**
+	 * The newest version
+	 */
+	private long version;
+	/**
+	 * The vertex chunks
+	 */
+	private Chunk[] vertexChunks;
+	/**
+	 * The number of vertex records
+	 */
+	private int vertexRecords;
+	/**
+	 * The number of vertices in the newest version
+	 */
+	private int liveVertices;
+	/**
+	 * The edge chunks
+	 */
+	private Chunk[] edgeChunks;
+	/**
+	 * The number of edge records
+	 */
+	private int edgeRecords;
+	/**
+	 * The number of edges in the newest version
+	 */
+	private int liveEdges;
+	/**
+	 * The newest published head
+	 */
+	private volatile Head head;
+	/**
+	 * Constructor that records the graph's current vertices and edges as version 0 and then follows its changes
+	 * @param graph the graph
+	 */
+	VersionLog(Graph graph) {
+		this.graph = graph;
+		this.vertexChunks = new Chunk[1];
+		this.edgeChunks = new Chunk[1];
+		for(Vertex vertex : graph.getVertices().values()) {
+			appendVertex(vertex);
+		}
+		for(Edge edge : graph.getEdges()) {
+			appendEdge(edge);
+		}
+		publish();
+		graph.addListener(this);
+	}
+	/**
+	 * Returns a snapshot of the newest version, safe to call from any thread
+	 * @return the snapshot
+	 */
+	GraphSnapshot snapshot() {
+		return new GraphSnapshot(head);
+	}
+	/**
+	 * Records the new vertex
+	 * @param vertex the new vertex
+	 */
+	public void vertexAdded(Vertex vertex) {
+		version++;
+		appendVertex(vertex);
+		publish();
+	}
+	/**
+	 * Stamps the removed vertex's record, compacting the vertex log once most of its records are dead
+	 * @param vertex the removed vertex
+	 */
+	public void vertexRemoved(Vertex vertex) {
+		version++;
+		int record = vertex.getRecord();
+		vertexChunks[record / CHUNK].removed.set(record % CHUNK, version);
+		vertex.setRecord(-1);
+		liveVertices--;
+		if(vertexRecords >= CHUNK && vertexRecords - liveVertices > liveVertices) compactVertices();
+		publish();
+	}
+	/**
+	 * Records the new edge
+	 * @param edge the new edge
+	 */
+	public void edgeAdded(Edge edge) {
+		version++;
+		appendEdge(edge);
+		publish();
+	}
+	/**
+	 * Stamps the removed edge's record, compacting the edge log once most of its records are dead
+	 * @param edge the removed edge
+	 */
+	public void edgeRemoved(Edge edge) {
+		version++;
+		int record = edge.getRecord();
+		edgeChunks[record / CHUNK].removed.set(record % CHUNK, version);
+		edge.setRecord(-1);
+		liveEdges--;
+		if(edgeRecords >= CHUNK && edgeRecords - liveEdges > liveEdges) compactEdges();
+		publish();
+	}
+	/**
+	 * Appends the record of a vertex, added at the current version. Vertex ids are reused, so each vertex gets a record
+	 * of its own rather than the slot of its id
+	 * @param vertex the vertex
+	 */
+	private void appendVertex(Vertex vertex) {
+		vertexChunks = reserve(vertexChunks, vertexRecords + 1);
+		Chunk chunk = vertexChunks[vertexRecords / CHUNK];
+		chunk.items[vertexRecords % CHUNK] = vertex;
+		chunk.added[vertexRecords % CHUNK] = version;
+		vertex.setRecord(vertexRecords++);
+		liveVertices++;
+	}
+	/**
+	 * Appends the record of an edge, added at the current version
+	 * @param edge the edge
+	 */
+	private void appendEdge(Edge edge) {
+		edgeChunks = reserve(edgeChunks, edgeRecords + 1);
+		Chunk chunk = edgeChunks[edgeRecords / CHUNK];
+		chunk.items[edgeRecords % CHUNK] = edge;
+		chunk.added[edgeRecords % CHUNK] = version;
+		edge.setRecord(edgeRecords++);
+		liveEdges++;
+	}
+	/**
+	 * Copies the live vertex records into fresh chunks, the same way as {@link #compactEdges()}
+	 */
+	private void compactVertices() {
+		Chunk[] old = vertexChunks;
+		int records = vertexRecords;
+		vertexChunks = new Chunk[1];
+		vertexRecords = 0;
+		liveVertices = 0;
+		for(int i = 0; i < records; i++) {
+			Chunk chunk = old[i / CHUNK];
+			if(chunk.removed.get(i % CHUNK) != LIVE) continue;
+			long added = chunk.added[i % CHUNK];
+			appendVertex((Vertex) chunk.items[i % CHUNK]);
+			vertexChunks[(vertexRecords - 1) / CHUNK].added[(vertexRecords - 1) % CHUNK] = added;
+		}
+	}
+	/**
+	 * Copies the live edge records into fresh chunks. Heads published before keep the old chunks, which stay correct
+	 * for their versions since every record they miss was removed after them
+	 */
+	private void compactEdges() {
+		Chunk[] old = edgeChunks;
+		int records = edgeRecords;
+		edgeChunks = new Chunk[1];
+		edgeRecords = 0;
+		liveEdges = 0;
+		for(int i = 0; i < records; i++) {
+			Chunk chunk = old[i / CHUNK];
+			if(chunk.removed.get(i % CHUNK) != LIVE) continue;
+			long added = chunk.added[i % CHUNK];
+			appendEdge((Edge) chunk.items[i % CHUNK]);
+			edgeChunks[(edgeRecords - 1) / CHUNK].added[(edgeRecords - 1) % CHUNK] = added;
+		}
+	}
+	/**
+	 * Returns the chunk array with room for the specified number of records, a new array if it had to grow. The array
+	 * of a published head is never written past its record count, so a grown array can share its chunks
+	 * @param chunks the chunk array
+	 * @param records the number of records
+	 * @return the chunk array to use
+	 */
+	private static Chunk[] reserve(Chunk[] chunks, int records) {
+		int needed = (records + CHUNK - 1) / CHUNK;
+		if(needed > chunks.length) chunks = Arrays.copyOf(chunks, Math.max(needed, chunks.length * 2));
+		
+		//The chunks are filled from the front, so only the missing ones at the end need allocating
+		for(int c = needed - 1; c >= 0 && chunks[c] == null; c--) {
+			chunks[c] = new Chunk();
+		}
+		return chunks;
+	}
+	/**
+	 * Publishes the newest version to readers
+	 */
+	private void publish() {
+		head = new Head(graph, version, vertexChunks, vertexRecords, liveVertices, edgeChunks, edgeRecords, liveEdges);
+	}
+	/**
+	 * A block of records, each an item with the versions it was added and removed at
+	 */
+	static class Chunk {
+		/**
+		 * The vertex or edge of each record, null past the last record
+		 */
+		final Object[] items;
+		/**
+		 * The version each record was added at
+		 */
+		final long[] added;
+		/**
+		 * The version each record was removed at, LIVE if it was not
+		 */
+		final AtomicLongArray removed;
+		/**
+		 * Constructor for an empty chunk
+		 */
+		Chunk() {
+			items = new Object[CHUNK];
+			added = new long[CHUNK];
+			removed = new AtomicLongArray(CHUNK);
+			for(int i = 0; i < CHUNK; i++) {
+				removed.lazySet(i, LIVE);
+			}
+		}
+		/**
+		 * Returns true if the record was part of the specified version
+		 * @param slot the index of the record in this chunk
+		 * @param version the version
+		 * @return true if the record is alive at that version
+		 */
+		boolean alive(int slot, long version) {
+			return items[slot] != null && added[slot] <= version && removed.get(slot) > version;
+		}
+	}
+	/**
+	 * An immutable view of the logs at one version
+	 */
+	static class Head {
+		/**
+		 * The graph whose history is kept
+		 */
+		final Graph graph;
+		/**
+		 * The version
+		 */
+		final long version;
+		/**
+		 * The vertex chunks
+		 */
+		final Chunk[] vertexChunks;
+		/**
+		 * The number of vertex records that existed at the version
+		 */
+		final int vertexRecords;
+		/**
+		 * The number of vertices at the version
+		 */
+		final int vertexCount;
+		/**
+		 * The edge chunks
+		 */
+		final Chunk[] edgeChunks;
+		/**
+		 * The number of edge records that existed at the version
+		 */
+		final int edgeRecords;
+		/**
+		 * The number of edges at the version
+		 */
+		final int edgeCount;
+		/**
+		 * Constructor that takes every field
+		 * @param graph the graph
+		 * @param version the version
+		 * @param vertexChunks the vertex chunks
+		 * @param vertexRecords the number of vertex records
+		 * @param vertexCount the number of vertices
+		 * @param edgeChunks the edge chunks
+		 * @param edgeRecords the number of edge records
+		 * @param edgeCount the number of edges
+		 */
+		Head(Graph graph, long version, Chunk[] vertexChunks, int vertexRecords, int vertexCount, Chunk[] edgeChunks,
+				int edgeRecords, int edgeCount) {
+			this.graph = graph;
+			this.version = version;
+			this.vertexChunks = vertexChunks;
+			this.vertexRecords = vertexRecords;
+			this.vertexCount = vertexCount;
+			this.edgeChunks = edgeChunks;
+			this.edgeRecords = edgeRecords;
+			this.edgeCount = edgeCount;
+		}
+	}
+}
@@ -13,7 +13,16 @@ public class Vertex {
 	 */
 	private String label;
 	/**
-	 * True if the vertex has been given in the current traversal
+	 * The integer id the graph assigned to this vertex
+	 */
+	private int id;
+	/**
+	 * The index of this vertex's record in its graph's version log, or -1 if the graph keeps no versions
+	 */
+	private int record;
+	/**
+	 * True if the vertex has been given in the current traversal, the graph's own traversals keep their visited state
+	 * per call and do not use this flag
 	 */
 	private boolean visited;
 	/**
@@ -46,6 +55,8 @@ public class Vertex {
 	 */
 	public Vertex(String label) {
 		this.label = label;
+		this.id = -1;
+		this.record = -1;
 		this.lightGray = false;
 		this.clicked = false;
 		this.isClickable = true;
@@ -66,6 +77,34 @@ public class Vertex {
 	public String getLabel() {
 		return this.label;
 	}
+	/**
+	 * Getter for the id field, the graph gives the ids of removed vertices to the vertices added after them
+	 * @return the id, or -1 if the vertex is not part of a graph
+	 */
+	public int getId() {
+		return id;
+	}
+	/**
+	 * Setter for the id field
+	 * @param id the new id
+	 */
+	void setId(int id) {
+		this.id = id;
+	}
+	/**
+	 * Getter for the index of this vertex's record in its graph's version log
+	 * @return the record index
+	 */
+	int getRecord() {
+		return record;
+	}
+	/**
+	 * Setter for the index of this vertex's record in its graph's version log
+	 * @param record the new record index
+	 */
+	void setRecord(int record) {
+		this.record = record;
+	}
 	/**
 	 * Getter for the visited field
 	 * @return has been visited or not
@@ -87,6 +126,13 @@ public class Vertex {
 	public void addNeighbor(Vertex vertex) {
 		neighbors.add(vertex);
 	}
+	/**
+	 * Grows the neighbors list so it can hold the specified number of neighbors without resizing
+	 * @param capacity the number of neighbors
+	 */
+	void ensureNeighborCapacity(int capacity) {
+		neighbors.ensureCapacity(capacity);
+	}
 	/**
 	 * This method removes the specified neighbor from the neighbors list
 	 * @param vertex the vertex to remove
@@ -129,6 +175,12 @@ public class Vertex {
 	public boolean equals(Object v) {
 		return (label.equals(((Vertex) v).label));
 	}
+	/**
+	 * The hash code for the vertex class that is consistent with equals
+	 */
+	public int hashCode() {
+		return label.hashCode();
+	}
 	/**
 	 * Sets the coordinates for this specific vertex
 	 * @param xCoor x coordinate
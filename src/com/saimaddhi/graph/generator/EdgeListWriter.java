@@ -0,0 +1,120 @@
+package com.saimaddhi.graph.generator;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+/**
+ * An edge sink that writes the generated edges in the "start end weight" format read by Graph.addEdgesFromFile,
+ * vertex i is labeled with the prefix followed by i. The lines are formatted straight into a byte buffer
+ * @author saimaddhi
+ *
+ */
+public class EdgeListWriter implements EdgeSink, Closeable {
+	/**
+	 * The stream being written
+	 */
+	private OutputStream out;
+	/**
+	 * The prefix of the vertex labels
+	 */
+	private byte[] prefix;
+	/**
+	 * The write buffer
+	 */
+	private byte[] buffer;
+	/**
+	 * The number of bytes in the buffer
+	 */
+	private int count;
+	/**
+	 * The number of edges written
+	 */
+	private long edges;
+	/**
+	 * Constructor that writes to the specified file with labels such as "v12"
+	 * @param file the file, its contents are replaced
+	 * @throws IOException if the file cannot be opened
+	 */
+	public EdgeListWriter(Path file) throws IOException {
+		this(Files.newOutputStream(file), "v");
+	}
+	/**
+	 * Constructor that writes to the specified stream with the specified label prefix
+	 * @param out the stream, it is closed with this writer
+	 * @param prefix the prefix of the vertex labels
+	 */
+	public EdgeListWriter(OutputStream out, String prefix) {
+		this.out = out;
+		this.prefix = prefix.getBytes(StandardCharsets.UTF_8);
+		this.buffer = new byte[1 << 16];
+		this.count = 0;
+		this.edges = 0;
+	}
+	/**
+	 * Writes the edge as one line
+	 */
+	public void accept(int start, int end, int weight) throws IOException {
+		if(buffer.length - count < 2 * prefix.length + 40) flush();
+		putLabel(start);
+		buffer[count++] = ' ';
+		putLabel(end);
+		buffer[count++] = ' ';
+		putInt(weight);
+		buffer[count++] = '\n';
+		edges++;
+	}
+	/**
+	 * Getter for the number of edges written
+	 * @return the number of edges
+	 */
+	public long getEdgeCount() {
+		return edges;
+	}
+	/**
+	 * Writes the buffered lines to the stream
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void flush() throws IOException {
+		out.write(buffer, 0, count);
+		count = 0;
+	}
+	/**
+	 * Flushes and closes the stream
+	 */
+	public void close() throws IOException {
+		flush();
+		out.close();
+	}
+	/**
+	 * Appends the label of the specified vertex id
+	 * @param id the vertex id
+	 */
+	private void putLabel(int id) {
+		System.arraycopy(prefix, 0, buffer, count, prefix.length);
+		count += prefix.length;
+		putInt(id);
+	}
+	/**
+	 * Appends the decimal digits of the specified int
+	 * @param value the int
+	 */
+	private void putInt(int value) {
+		long v = value;
+		if(v < 0) {
+			buffer[count++] = '-';
+			v = -v;
+		}
+		int start = count;
+		do {
+			buffer[count++] = (byte) ('0' + v % 10);
+			v /= 10;
+		} while(v != 0);
+		for(int i = start, j = count - 1; i < j; i++, j--) {
+			byte swap = buffer[i];
+			buffer[i] = buffer[j];
+			buffer[j] = swap;
+		}
+	}
+}
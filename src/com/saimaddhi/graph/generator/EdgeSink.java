@@ -0,0 +1,17 @@
+package com.saimaddhi.graph.generator;
+import java.io.IOException;
+/**
+ * Receives the edges of a generated graph one at a time, so graphs of any size can be generated in bounded memory
+ * @author saimaddhi
+ *
+ */
+public interface EdgeSink {
+	/**
+	 * Accepts one generated edge
+	 * @param start the id of the start vertex
+	 * @param end the id of the end vertex
+	 * @param weight the weight of the edge
+	 * @throws IOException if the edge cannot be written
+	 */
+	void accept(int start, int end, int weight) throws IOException;
+}
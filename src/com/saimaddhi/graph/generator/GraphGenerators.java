@@ -0,0 +1,274 @@
+package com.saimaddhi.graph.generator;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+/**
+ * Seeded generators of large synthetic graphs. Every generator streams its edges into an edge sink as it makes them,
+ * so the memory used does not grow with the number of edges unless noted otherwise. The same seed always produces the
+ * same edges in the same order, and the weights are drawn uniformly from 1 to maxWeight unless noted otherwise
+ * @author saimaddhi
+ *
+ */
+public class GraphGenerators {
+	/**
+	 * This class only has static methods
+	 */
+	private GraphGenerators() {
+	}
+	/**
+	 * Generates an Erdos-Renyi G(n, p) graph where each of the n(n-1)/2 vertex pairs is joined with probability p.
+	 * Pairs are skipped geometrically (Batagelj and Brandes), so the time is proportional to the number of edges
+	 * @param n the number of vertices
+	 * @param p the probability of each edge
+	 * @param maxWeight the largest weight
+	 * @param seed the random seed
+	 * @param sink the sink that receives the edges
+	 * @throws IOException if the sink cannot write an edge
+	 */
+	public static void erdosRenyi(int n, double p, int maxWeight, long seed, EdgeSink sink) throws IOException {
+		if(p <= 0) return;
+		SplittableRandom random = new SplittableRandom(seed);
+		double logQ = Math.log(1 - p);
+		long v = 1;
+		long w = -1;
+		while(v < n) {
+			w += 1 + ((p >= 1) ? 0 : (long) Math.floor(Math.log(1 - random.nextDouble()) / logQ));
+			while(w >= v && v < n) {
+				w -= v;
+				v++;
+			}
+			if(v < n) sink.accept((int) v, (int) w, weight(random, maxWeight));
+		}
+	}
+	/**
+	 * Generates an R-MAT graph on 2^scale vertices. Each edge picks one quadrant of the adjacency matrix per level with
+	 * probabilities a, b, c and 1-a-b-c, which gives the skewed degrees of Kronecker graphs. Self loops are redrawn
+	 * and repeated pairs are kept
+	 * @param scale the log base 2 of the number of vertices
+	 * @param edges the number of edges
+	 * @param a the probability of the top left quadrant
+	 * @param b the probability of the top right quadrant
+	 * @param c the probability of the bottom left quadrant
+	 * @param maxWeight the largest weight
+	 * @param seed the random seed
+	 * @param sink the sink that receives the edges
+	 * @throws IOException if the sink cannot write an edge
+	 */
+	public static void rmat(int scale, long edges, double a, double b, double c, int maxWeight, long seed,
+			EdgeSink sink) throws IOException {
+		if(scale < 1 || scale > 31) throw new IllegalArgumentException("Scale must be between 1 and 31");
+		SplittableRandom random = new SplittableRandom(seed);
+		for(long i = 0; i < edges; i++) {
+			int start;
+			int end;
+			do {
+				start = 0;
+				end = 0;
+				for(int level = 0; level < scale; level++) {
+					double r = random.nextDouble();
+					start <<= 1;
+					end <<= 1;
+					if(r < a) {
+						continue;
+					} else if(r < a + b) {
+						end |= 1;
+					} else if(r < a + b + c) {
+						start |= 1;
+					} else {
+						start |= 1;
+						end |= 1;
+					}
+				}
+			} while(start == end);
+			sink.accept(start, end, weight(random, maxWeight));
+		}
+	}
+	/**
+	 * Generates a rows by cols grid where vertex r * cols + c is joined to its right and lower neighbors
+	 * @param rows the number of rows
+	 * @param cols the number of columns
+	 * @param maxWeight the largest weight
+	 * @param seed the random seed
+	 * @param sink the sink that receives the edges
+	 * @throws IOException if the sink cannot write an edge
+	 */
+	public static void grid(int rows, int cols, int maxWeight, long seed, EdgeSink sink) throws IOException {
+		if((long) rows * cols > Integer.MAX_VALUE) throw new IllegalArgumentException("Grid has too many vertices");
+		SplittableRandom random = new SplittableRandom(seed);
+		for(int r = 0; r < rows; r++) {
+			for(int c = 0; c < cols; c++) {
+				int v = r * cols + c;
+				if(c + 1 < cols) sink.accept(v, v + 1, weight(random, maxWeight));
+				if(r + 1 < rows) sink.accept(v, v + cols, weight(random, maxWeight));
+			}
+		}
+	}
+	/**
+	 * Generates a Barabasi-Albert preferential attachment graph. The first m + 1 vertices form a clique and every later
+	 * vertex joins m distinct earlier vertices chosen with probability proportional to their degree. The endpoints of
+	 * all edges are kept to sample by degree, so this generator needs 8 bytes of memory per edge
+	 * @param n the number of vertices
+	 * @param m the number of edges added with each vertex
+	 * @param maxWeight the largest weight
+	 * @param seed the random seed
+	 * @param sink the sink that receives the edges
+	 * @throws IOException if the sink cannot write an edge
+	 */
+	public static void barabasiAlbert(int n, int m, int maxWeight, long seed, EdgeSink sink) throws IOException {
+		if(m < 1 || n <= m) throw new IllegalArgumentException("Need at least one edge per vertex and more than m vertices");
+		long total = (long) m * (m + 1) + 2L * m * (n - m - 1);
+		if(total > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Graph has too many edges to sample by degree");
+		SplittableRandom random = new SplittableRandom(seed);
+		int[] endpoints = new int[(int) total];
+		int size = 0;
+		for(int v = 0; v <= m; v++) {
+			for(int w = 0; w < v; w++) {
+				sink.accept(v, w, weight(random, maxWeight));
+				endpoints[size++] = v;
+				endpoints[size++] = w;
+			}
+		}
+		int[] chosen = new int[m];
+		for(int v = m + 1; v < n; v++) {
+			for(int i = 0; i < m; i++) {
+				int target;
+				boolean repeated;
+				do {
+					target = endpoints[random.nextInt(size)];
+					repeated = false;
+					for(int j = 0; j < i; j++) {
+						if(chosen[j] == target) repeated = true;
+					}
+				} while(repeated);
+				chosen[i] = target;
+			}
+			for(int i = 0; i < m; i++) {
+				sink.accept(v, chosen[i], weight(random, maxWeight));
+				endpoints[size++] = v;
+				endpoints[size++] = chosen[i];
+			}
+		}
+	}
+	/**
+	 * Generates a random geometric graph of n points placed uniformly in the unit square, where points closer than the
+	 * radius are joined. The weight grows with the distance from 1 at distance 0 to maxWeight at the radius. The points
+	 * are bucketed into cells as wide as the radius, so this generator needs memory proportional to n but not to the
+	 * number of edges
+	 * @param n the number of vertices
+	 * @param radius the connection radius
+	 * @param maxWeight the largest weight
+	 * @param seed the random seed
+	 * @param sink the sink that receives the edges
+	 * @throws IOException if the sink cannot write an edge
+	 */
+	public static void randomGeometric(int n, double radius, int maxWeight, long seed, EdgeSink sink)
+			throws IOException {
+		SplittableRandom random = new SplittableRandom(seed);
+		double[] xs = new double[n];
+		double[] ys = new double[n];
+		for(int v = 0; v < n; v++) {
+			xs[v] = random.nextDouble();
+			ys[v] = random.nextDouble();
+		}
+		int cells = (int) Math.max(1, Math.min(Math.floor(1 / radius), Math.sqrt(n) + 1));
+		int[] starts = new int[cells * cells + 1];
+		int[] cellOf = new int[n];
+		for(int v = 0; v < n; v++) {
+			int cx = Math.min(cells - 1, (int) (xs[v] * cells));
+			int cy = Math.min(cells - 1, (int) (ys[v] * cells));
+			cellOf[v] = cy * cells + cx;
+			starts[cellOf[v] + 1]++;
+		}
+		for(int i = 0; i < cells * cells; i++) {
+			starts[i + 1] += starts[i];
+		}
+		int[] members = new int[n];
+		int[] next = Arrays.copyOf(starts, cells * cells);
+		for(int v = 0; v < n; v++) {
+			members[next[cellOf[v]]++] = v;
+		}
+		
+		//Compare each point with the later points of its own and the neighboring cells
+		double squared = radius * radius;
+		for(int v = 0; v < n; v++) {
+			int cx = cellOf[v] % cells;
+			int cy = cellOf[v] / cells;
+			for(int dy = -1; dy <= 1; dy++) {
+				for(int dx = -1; dx <= 1; dx++) {
+					int x = cx + dx;
+					int y = cy + dy;
+					if(x < 0 || y < 0 || x >= cells || y >= cells) continue;
+					int cell = y * cells + x;
+					for(int i = starts[cell]; i < starts[cell + 1]; i++) {
+						int w = members[i];
+						if(w <= v) continue;
+						double ddx = xs[v] - xs[w];
+						double ddy = ys[v] - ys[w];
+						double distance = ddx * ddx + ddy * ddy;
+						if(distance < squared) {
+							int weight = 1 + (int) ((maxWeight - 1) * Math.sqrt(distance) / radius);
+							sink.accept(v, w, weight);
+						}
+					}
+				}
+			}
+		}
+	}
+	/**
+	 * Draws a weight uniformly from 1 to maxWeight
+	 * @param random the random source
+	 * @param maxWeight the largest weight
+	 * @return the weight
+	 */
+	private static int weight(SplittableRandom random, int maxWeight) {
+		return 1 + random.nextInt(maxWeight);
+	}
+	/**
+	 * Writes a generated graph to an edge list file.
+	 * <p>
+	 * Usage: GraphGenerators output seed maxWeight model parameters, where model and parameters are one of
+	 * <ul>
+	 * <li>erdos-renyi n p</li>
+	 * <li>rmat scale edges [a b c]</li>
+	 * <li>grid rows cols</li>
+	 * <li>barabasi-albert n m</li>
+	 * <li>geometric n radius</li>
+	 * </ul>
+	 * @param args the command line arguments
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length < 5) {
+			System.err.println("Usage: GraphGenerators output seed maxWeight model parameters...");
+			return;
+		}
+		long seed = Long.parseLong(args[1]);
+		int maxWeight = Integer.parseInt(args[2]);
+		try(EdgeListWriter writer = new EdgeListWriter(Paths.get(args[0]))) {
+			switch(args[3]) {
+				case "erdos-renyi":
+					erdosRenyi(Integer.parseInt(args[4]), Double.parseDouble(args[5]), maxWeight, seed, writer);
+					break;
+				case "rmat":
+					double a = (args.length > 8) ? Double.parseDouble(args[6]) : 0.57;
+					double b = (args.length > 8) ? Double.parseDouble(args[7]) : 0.19;
+					double c = (args.length > 8) ? Double.parseDouble(args[8]) : 0.19;
+					rmat(Integer.parseInt(args[4]), Long.parseLong(args[5]), a, b, c, maxWeight, seed, writer);
+					break;
+				case "grid":
+					grid(Integer.parseInt(args[4]), Integer.parseInt(args[5]), maxWeight, seed, writer);
+					break;
+				case "barabasi-albert":
+					barabasiAlbert(Integer.parseInt(args[4]), Integer.parseInt(args[5]), maxWeight, seed, writer);
+					break;
+				case "geometric":
+					randomGeometric(Integer.parseInt(args[4]), Double.parseDouble(args[5]), maxWeight, seed, writer);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown model " + args[3]);
+			}
+			System.out.println(writer.getEdgeCount() + " edges written to " + args[0]);
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.saimaddhi.graph.generator;
+import java.util.Arrays;
+
+import com.saimaddhi.graph.Graph;
+/**
+ * An edge sink that adds the generated edges to a graph, vertex i is labeled with the prefix followed by i
+ * @author saimaddhi
+ *
+ */
+public class GraphSink implements EdgeSink {
+	/**
+	 * The graph the edges are added to
+	 */
+	private Graph graph;
+	/**
+	 * The prefix of the vertex labels
+	 */
+	private String prefix;
+	/**
+	 * The labels made so far indexed by vertex id, so each label is only built once
+	 */
+	private String[] labels;
+	/**
+	 * Constructor that adds edges to the specified graph with labels such as "v12"
+	 * @param graph the graph
+	 */
+	public GraphSink(Graph graph) {
+		this(graph, "v");
+	}
+	/**
+	 * Constructor that adds edges to the specified graph with the specified label prefix
+	 * @param graph the graph
+	 * @param prefix the prefix of the vertex labels
+	 */
+	public GraphSink(Graph graph, String prefix) {
+		this.graph = graph;
+		this.prefix = prefix;
+		this.labels = new String[16];
+	}
+	/**
+	 * Adds the edge to the graph
+	 */
+	public void accept(int start, int end, int weight) {
+		graph.addEdge(label(start), label(end), weight);
+	}
+	/**
+	 * Returns the label of the specified vertex id
+	 * @param id the vertex id
+	 * @return the label
+	 */
+	private String label(int id) {
+		if(id >= labels.length) labels = Arrays.copyOf(labels, Math.max(id + 1, labels.length * 2));
+		if(labels[id] == null) labels[id] = prefix + id;
+		return labels[id];
+	}
+}
@@ -0,0 +1,200 @@
+package com.saimaddhi.graph.primitive;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+/**
+ * An indexed d-ary min heap of the int items 0 to capacity-1, each with a long key. The position of every item is
+ * tracked so its key can be lowered in place, and a wider heap makes that cheaper at the cost of slower removals
+ * @author saimaddhi
+ *
+ */
+public class IndexedMinHeap {
+	/**
+	 * The number of children of every node
+	 */
+	private final int arity;
+	/**
+	 * The items in heap order
+	 */
+	private int[] heap;
+	/**
+	 * The position of each item in the heap, -1 if it is not in the heap
+	 */
+	private int[] positions;
+	/**
+	 * The key of each item
+	 */
+	private long[] keys;
+	/**
+	 * The number of items in the heap
+	 */
+	private int size;
+	/**
+	 * Constructor that makes a 4-ary heap for the specified number of items
+	 * @param capacity the number of items
+	 */
+	public IndexedMinHeap(int capacity) {
+		this(capacity, 4);
+	}
+	/**
+	 * Constructor that makes a heap for the specified number of items with the specified arity
+	 * @param capacity the number of items
+	 * @param arity the number of children of every node, at least 2
+	 */
+	public IndexedMinHeap(int capacity, int arity) {
+		if(arity < 2) throw new IllegalArgumentException("Arity must be at least 2");
+		this.arity = arity;
+		this.heap = new int[capacity];
+		this.positions = new int[capacity];
+		this.keys = new long[capacity];
+		Arrays.fill(positions, -1);
+		this.size = 0;
+	}
+	/**
+	 * Returns true if the specified item is in the heap
+	 * @param item the item
+	 * @return true if the item is in the heap
+	 */
+	public boolean contains(int item) {
+		return positions[item] >= 0;
+	}
+	/**
+	 * Returns the key of the specified item
+	 * @param item the item
+	 * @return the key
+	 */
+	public long keyOf(int item) {
+		if(positions[item] < 0) throw new NoSuchElementException("Item " + item + " is not in the heap");
+		return keys[item];
+	}
+	/**
+	 * Adds the specified item with the specified key
+	 * @param item the item, which must not be in the heap
+	 * @param key the key
+	 */
+	public void insert(int item, long key) {
+		if(positions[item] >= 0) throw new IllegalArgumentException("Item " + item + " is already in the heap");
+		keys[item] = key;
+		positions[item] = size;
+		heap[size] = item;
+		siftUp(size++);
+	}
+	/**
+	 * Lowers the key of the specified item
+	 * @param item the item, which must be in the heap
+	 * @param key the new key, no larger than the current key
+	 */
+	public void decreaseKey(int item, long key) {
+		if(key > keyOf(item)) throw new IllegalArgumentException("Key of item " + item + " would increase");
+		keys[item] = key;
+		siftUp(positions[item]);
+	}
+	/**
+	 * Inserts the item or lowers its key, whichever applies, and does nothing if the key would increase
+	 * @param item the item
+	 * @param key the key
+	 * @return true if the item was inserted or its key lowered
+	 */
+	public boolean offer(int item, long key) {
+		if(positions[item] < 0) {
+			insert(item, key);
+			return true;
+		}
+		if(key >= keys[item]) return false;
+		keys[item] = key;
+		siftUp(positions[item]);
+		return true;
+	}
+	/**
+	 * Returns the item with the smallest key but does not remove it
+	 * @return the item
+	 */
+	public int peek() {
+		if(size == 0) throw new NoSuchElementException("Heap underflow");
+		return heap[0];
+	}
+	/**
+	 * Returns the smallest key
+	 * @return the key
+	 */
+	public long peekKey() {
+		return keys[peek()];
+	}
+	/**
+	 * Returns the item with the smallest key AND removes it from the heap
+	 * @return the item
+	 */
+	public int poll() {
+		int item = peek();
+		positions[item] = -1;
+		size--;
+		if(size > 0) {
+			heap[0] = heap[size];
+			positions[heap[0]] = 0;
+			siftDown(0);
+		}
+		return item;
+	}
+	/**
+	 * the getter for the number of items in the heap
+	 * @return the size of the heap
+	 */
+	public int size() {
+		return size;
+	}
+	/**
+	 * true if the heap is empty
+	 * @return true if the heap is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	/**
+	 * Removes every item in time proportional to the number of items in the heap
+	 */
+	public void clear() {
+		for(int i = 0; i < size; i++) {
+			positions[heap[i]] = -1;
+		}
+		size = 0;
+	}
+	/**
+	 * Moves the item at the specified position up until its parent has a smaller key
+	 * @param position the position
+	 */
+	private void siftUp(int position) {
+		int item = heap[position];
+		long key = keys[item];
+		while(position > 0) {
+			int parent = (position - 1) / arity;
+			if(keys[heap[parent]] <= key) break;
+			heap[position] = heap[parent];
+			positions[heap[position]] = position;
+			position = parent;
+		}
+		heap[position] = item;
+		positions[item] = position;
+	}
+	/**
+	 * Moves the item at the specified position down until its children have larger keys
+	 * @param position the position
+	 */
+	private void siftDown(int position) {
+		int item = heap[position];
+		long key = keys[item];
+		while(true) {
+			int first = position * arity + 1;
+			if(first >= size) break;
+			int best = first;
+			int last = Math.min(first + arity, size);
+			for(int child = first + 1; child < last; child++) {
+				if(keys[heap[child]] < keys[heap[best]]) best = child;
+			}
+			if(keys[heap[best]] >= key) break;
+			heap[position] = heap[best];
+			positions[heap[position]] = position;
+			position = best;
+		}
+		heap[position] = item;
+		positions[item] = position;
+	}
+}
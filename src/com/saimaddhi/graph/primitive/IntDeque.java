@@ -0,0 +1,115 @@
+package com.saimaddhi.graph.primitive;
+import java.util.NoSuchElementException;
+/**
+ * A double ended queue of ints backed by a ring buffer whose capacity is a power of two
+ * @author saimaddhi
+ *
+ */
+public class IntDeque {
+	/**
+	 * The ring buffer
+	 */
+	private int[] elements;
+	/**
+	 * The index of the first element
+	 */
+	private int head;
+	/**
+	 * The number of elements in the deque
+	 */
+	private int size;
+	/**
+	 * The default constructor for the deque
+	 */
+	public IntDeque() {
+		this(16);
+	}
+	/**
+	 * Constructor that presizes the deque
+	 * @param capacity the initial capacity
+	 */
+	public IntDeque(int capacity) {
+		elements = new int[Integer.highestOneBit(Math.max(capacity, 2) * 2 - 1)];
+		head = 0;
+		size = 0;
+	}
+	/**
+	 * Adds the specified value to the back of the deque
+	 * @param value the value
+	 */
+	public void addLast(int value) {
+		if(size == elements.length) grow();
+		elements[(head + size) & (elements.length - 1)] = value;
+		size++;
+	}
+	/**
+	 * Adds the specified value to the front of the deque
+	 * @param value the value
+	 */
+	public void addFirst(int value) {
+		if(size == elements.length) grow();
+		head = (head - 1) & (elements.length - 1);
+		elements[head] = value;
+		size++;
+	}
+	/**
+	 * Returns the first element AND removes it from the deque
+	 * @return the first element
+	 */
+	public int pollFirst() {
+		if(size == 0) throw new NoSuchElementException("Deque underflow");
+		int value = elements[head];
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		return value;
+	}
+	/**
+	 * Returns the last element AND removes it from the deque
+	 * @return the last element
+	 */
+	public int pollLast() {
+		if(size == 0) throw new NoSuchElementException("Deque underflow");
+		size--;
+		return elements[(head + size) & (elements.length - 1)];
+	}
+	/**
+	 * Returns the first element but does not remove it
+	 * @return the first element
+	 */
+	public int peekFirst() {
+		if(size == 0) throw new NoSuchElementException("Deque underflow");
+		return elements[head];
+	}
+	/**
+	 * the getter for the size of the deque
+	 * @return the size of the deque
+	 */
+	public int size() {
+		return size;
+	}
+	/**
+	 * true if the deque is empty
+	 * @return true if the deque is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	/**
+	 * Removes every element but keeps the capacity
+	 */
+	public void clear() {
+		head = 0;
+		size = 0;
+	}
+	/**
+	 * Doubles the capacity and moves the elements to the start of the new buffer
+	 */
+	private void grow() {
+		int[] grown = new int[elements.length * 2];
+		int firstPart = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, grown, 0, firstPart);
+		System.arraycopy(elements, 0, grown, firstPart, size - firstPart);
+		elements = grown;
+		head = 0;
+	}
+}
@@ -0,0 +1,183 @@
+package com.saimaddhi.graph.primitive;
+import java.util.Arrays;
+/**
+ * An open addressing hash map from int keys to int values that uses linear probing
+ * @author saimaddhi
+ *
+ */
+public class IntIntMap {
+	/**
+	 * The marker for an empty slot
+	 */
+	private static final int EMPTY = Integer.MIN_VALUE;
+	/**
+	 * The keys of the slots, EMPTY for empty slots
+	 */
+	private int[] keys;
+	/**
+	 * The values of the slots
+	 */
+	private int[] values;
+	/**
+	 * True if the key EMPTY itself is in the map, it is stored outside of the slots
+	 */
+	private boolean hasEmptyKey;
+	/**
+	 * The value of the key EMPTY
+	 */
+	private int emptyKeyValue;
+	/**
+	 * The number of keys in the map
+	 */
+	private int size;
+	/**
+	 * The default constructor for the map
+	 */
+	public IntIntMap() {
+		this(16);
+	}
+	/**
+	 * Constructor that presizes the map
+	 * @param expected the number of keys the map should hold without rehashing
+	 */
+	public IntIntMap(int expected) {
+		int capacity = Integer.highestOneBit(Math.max(expected, 4) * 2 - 1) * 2;
+		keys = new int[capacity];
+		values = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+	}
+	/**
+	 * Returns the value of the specified key
+	 * @param key the key
+	 * @param missing the value returned if the key is not in the map
+	 * @return the value, or missing if there is none
+	 */
+	public int get(int key, int missing) {
+		if(key == EMPTY) return hasEmptyKey ? emptyKeyValue : missing;
+		int mask = keys.length - 1;
+		for(int slot = mix(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+			if(keys[slot] == key) return values[slot];
+		}
+		return missing;
+	}
+	/**
+	 * Returns true if the specified key is in the map
+	 * @param key the key
+	 * @return true if the key is in the map
+	 */
+	public boolean containsKey(int key) {
+		if(key == EMPTY) return hasEmptyKey;
+		int mask = keys.length - 1;
+		for(int slot = mix(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+			if(keys[slot] == key) return true;
+		}
+		return false;
+	}
+	/**
+	 * Maps the specified key to the specified value
+	 * @param key the key
+	 * @param value the value
+	 */
+	public void put(int key, int value) {
+		if(key == EMPTY) {
+			if(!hasEmptyKey) size++;
+			hasEmptyKey = true;
+			emptyKeyValue = value;
+			return;
+		}
+		int mask = keys.length - 1;
+		int slot = mix(key) & mask;
+		while(keys[slot] != EMPTY) {
+			if(keys[slot] == key) {
+				values[slot] = value;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		size++;
+		if(size * 2 > keys.length) rehash(keys.length * 2);
+	}
+	/**
+	 * Removes the specified key from the map
+	 * @param key the key
+	 * @return true if the key was in the map
+	 */
+	public boolean remove(int key) {
+		if(key == EMPTY) {
+			if(!hasEmptyKey) return false;
+			hasEmptyKey = false;
+			size--;
+			return true;
+		}
+		int mask = keys.length - 1;
+		int slot = mix(key) & mask;
+		while(keys[slot] != key) {
+			if(keys[slot] == EMPTY) return false;
+			slot = (slot + 1) & mask;
+		}
+		
+		//Shift back the following entries of the probe run so lookups do not stop early
+		int gap = slot;
+		slot = (slot + 1) & mask;
+		while(keys[slot] != EMPTY) {
+			int home = mix(keys[slot]) & mask;
+			if(((slot - home) & mask) >= ((slot - gap) & mask)) {
+				keys[gap] = keys[slot];
+				values[gap] = values[slot];
+				gap = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[gap] = EMPTY;
+		size--;
+		return true;
+	}
+	/**
+	 * the getter for the number of keys in the map
+	 * @return the number of keys
+	 */
+	public int size() {
+		return size;
+	}
+	/**
+	 * Removes every key but keeps the capacity
+	 */
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		hasEmptyKey = false;
+		size = 0;
+	}
+	/**
+	 * Spreads the bits of the key so that sequential keys do not cluster
+	 * @param key the key
+	 * @return the mixed hash
+	 */
+	private static int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+	/**
+	 * Moves every entry into a table of the specified capacity
+	 * @param capacity the new capacity, a power of two
+	 */
+	private void rehash(int capacity) {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new int[capacity];
+		values = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+		int mask = capacity - 1;
+		for(int i = 0; i < oldKeys.length; i++) {
+			if(oldKeys[i] == EMPTY) continue;
+			int slot = mix(oldKeys[i]) & mask;
+			while(keys[slot] != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = oldKeys[i];
+			values[slot] = oldValues[i];
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package com.saimaddhi.graph.primitive;
+import java.util.Arrays;
+/**
+ * A growable list of ints backed by an array
+ * @author saimaddhi
+ *
+ */
+public class IntList {
+	/**
+	 * The elements of the list
+	 */
+	private int[] elements;
+	/**
+	 * The number of elements in the list
+	 */
+	private int size;
+	/**
+	 * The default constructor for the list
+	 */
+	public IntList() {
+		this(16);
+	}
+	/**
+	 * Constructor that presizes the list
+	 * @param capacity the initial capacity
+	 */
+	public IntList(int capacity) {
+		elements = new int[Math.max(capacity, 1)];
+		size = 0;
+	}
+	/**
+	 * Adds the specified value to the end of the list
+	 * @param value the value
+	 */
+	public void add(int value) {
+		if(size == elements.length) elements = Arrays.copyOf(elements, size * 2);
+		elements[size++] = value;
+	}
+	/**
+	 * Returns the element at the specified index
+	 * @param index the index
+	 * @return the element
+	 */
+	public int get(int index) {
+		if(index >= size) throw new IndexOutOfBoundsException("Index " + index + " of size " + size);
+		return elements[index];
+	}
+	/**
+	 * Replaces the element at the specified index
+	 * @param index the index
+	 * @param value the new value
+	 */
+	public void set(int index, int value) {
+		if(index >= size) throw new IndexOutOfBoundsException("Index " + index + " of size " + size);
+		elements[index] = value;
+	}
+	/**
+	 * Removes the element at the specified index by moving the last element into its place
+	 * @param index the index
+	 * @return the removed element
+	 */
+	public int swapRemove(int index) {
+		int value = get(index);
+		elements[index] = elements[--size];
+		return value;
+	}
+	/**
+	 * Getter for the size of the list
+	 * @return the size
+	 */
+	public int size() {
+		return size;
+	}
+	/**
+	 * true if the list is empty
+	 * @return true if the list is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	/**
+	 * Removes every element but keeps the capacity
+	 */
+	public void clear() {
+		size = 0;
+	}
+	/**
+	 * Grows the list so it can hold the specified number of elements without resizing
+	 * @param capacity the capacity
+	 */
+	public void ensureCapacity(int capacity) {
+		if(capacity > elements.length) elements = Arrays.copyOf(elements, Math.max(capacity, elements.length * 2));
+	}
+	/**
+	 * Returns a copy of the elements
+	 * @return the array of elements
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(elements, size);
+	}
+	/**
+	 * The to string of this list that formats them as such : [item1, item2, item3]
+	 */
+	public String toString() {
+		StringBuilder s = new StringBuilder("[");
+		for(int i = 0; i < size; i++) {
+			if(i > 0) s.append(", ");
+			s.append(elements[i]);
+		}
+		return s.append(']').toString();
+	}
+}
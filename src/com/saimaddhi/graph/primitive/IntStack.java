@@ -0,0 +1,76 @@
+package com.saimaddhi.graph.primitive;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+/**
+ * A last in first out stack of ints backed by an array
+ * @author saimaddhi
+ *
+ */
+public class IntStack {
+	/**
+	 * The elements of the stack, the top is at size - 1
+	 */
+	private int[] elements;
+	/**
+	 * The number of elements on the stack
+	 */
+	private int size;
+	/**
+	 * The default constructor for the stack
+	 */
+	public IntStack() {
+		this(16);
+	}
+	/**
+	 * Constructor that presizes the stack
+	 * @param capacity the initial capacity
+	 */
+	public IntStack(int capacity) {
+		elements = new int[Math.max(capacity, 1)];
+		size = 0;
+	}
+	/**
+	 * Pushes the specified value onto the stack
+	 * @param value the value
+	 */
+	public void push(int value) {
+		if(size == elements.length) elements = Arrays.copyOf(elements, size * 2);
+		elements[size++] = value;
+	}
+	/**
+	 * Returns the top element AND removes it from the stack
+	 * @return the top element
+	 */
+	public int pop() {
+		if(size == 0) throw new NoSuchElementException("Stack underflow");
+		return elements[--size];
+	}
+	/**
+	 * Returns the top element but does not remove it
+	 * @return the top element
+	 */
+	public int peek() {
+		if(size == 0) throw new NoSuchElementException("Stack underflow");
+		return elements[size - 1];
+	}
+	/**
+	 * the getter for the size of the stack
+	 * @return the size of the stack
+	 */
+	public int size() {
+		return size;
+	}
+	/**
+	 * true if the stack is empty
+	 * @return true if the stack is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	/**
+	 * Removes every element but keeps the capacity
+	 */
+	public void clear() {
+		size = 0;
+	}
+}
@@ -0,0 +1,119 @@
+package com.saimaddhi.graph.primitive;
+import java.util.Arrays;
+/**
+ * An open addressing hash set of long keys that uses linear probing
+ * @author saimaddhi
+ *
+ */
+public class LongHashSet {
+	/**
+	 * The marker for an empty slot
+	 */
+	private static final long EMPTY = Long.MIN_VALUE;
+	/**
+	 * The keys of the slots, EMPTY for empty slots
+	 */
+	private long[] keys;
+	/**
+	 * True if the key EMPTY itself is in the set, it is stored outside of the slots
+	 */
+	private boolean hasEmptyKey;
+	/**
+	 * The number of keys in the set
+	 */
+	private int size;
+	/**
+	 * The default constructor for the set
+	 */
+	public LongHashSet() {
+		this(16);
+	}
+	/**
+	 * Constructor that presizes the set
+	 * @param expected the number of keys the set should hold without rehashing
+	 */
+	public LongHashSet(int expected) {
+		int capacity = Integer.highestOneBit(Math.max(expected, 4) * 2 - 1) * 2;
+		keys = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+	}
+	/**
+	 * Adds the specified key to the set
+	 * @param key the key
+	 * @return true if the key was not already in the set
+	 */
+	public boolean add(long key) {
+		if(key == EMPTY) {
+			if(hasEmptyKey) return false;
+			hasEmptyKey = true;
+			size++;
+			return true;
+		}
+		int mask = keys.length - 1;
+		int slot = mix(key) & mask;
+		while(keys[slot] != EMPTY) {
+			if(keys[slot] == key) return false;
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		size++;
+		if(size * 2 > keys.length) rehash(keys.length * 2);
+		return true;
+	}
+	/**
+	 * Returns true if the specified key is in the set
+	 * @param key the key
+	 * @return true if the key is in the set
+	 */
+	public boolean contains(long key) {
+		if(key == EMPTY) return hasEmptyKey;
+		int mask = keys.length - 1;
+		for(int slot = mix(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+			if(keys[slot] == key) return true;
+		}
+		return false;
+	}
+	/**
+	 * the getter for the number of keys in the set
+	 * @return the number of keys
+	 */
+	public int size() {
+		return size;
+	}
+	/**
+	 * Removes every key but keeps the capacity
+	 */
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		hasEmptyKey = false;
+		size = 0;
+	}
+	/**
+	 * Spreads the bits of the key so that keys differing only in their high or low half do not cluster
+	 * @param key the key
+	 * @return the mixed hash
+	 */
+	private static int mix(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+	/**
+	 * Moves every key into a table of the specified capacity
+	 * @param capacity the new capacity, a power of two
+	 */
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		keys = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		int mask = capacity - 1;
+		for(int i = 0; i < oldKeys.length; i++) {
+			if(oldKeys[i] == EMPTY) continue;
+			int slot = mix(oldKeys[i]) & mask;
+			while(keys[slot] != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = oldKeys[i];
+		}
+	}
+}
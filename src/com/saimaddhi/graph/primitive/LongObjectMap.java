@@ -0,0 +1,228 @@
+package com.saimaddhi.graph.primitive;
+import java.util.Arrays;
+/**
+ * An open addressing hash map from long keys to object values that uses linear probing
+ * @author saimaddhi
+ *
+ * @param <V> the type of the values
+ */
+public class LongObjectMap<V> {
+	/**
+	 * The marker for an empty slot
+	 */
+	private static final long EMPTY = Long.MIN_VALUE;
+	/**
+	 * The keys of the slots, EMPTY for empty slots
+	 */
+	private long[] keys;
+	/**
+	 * The values of the slots
+	 */
+	private Object[] values;
+	/**
+	 * True if the key EMPTY itself is in the map, it is stored outside of the slots
+	 */
+	private boolean hasEmptyKey;
+	/**
+	 * The value of the key EMPTY
+	 */
+	private V emptyKeyValue;
+	/**
+	 * The number of keys in the map
+	 */
+	private int size;
+	/**
+	 * The default constructor for the map
+	 */
+	public LongObjectMap() {
+		this(16);
+	}
+	/**
+	 * Constructor that presizes the map
+	 * @param expected the number of keys the map should hold without rehashing
+	 */
+	public LongObjectMap(int expected) {
+		int capacity = capacityFor(expected);
+		keys = new long[capacity];
+		values = new Object[capacity];
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+	}
+	/**
+	 * Returns the value of the specified key
+	 * @param key the key
+	 * @return the value, or null if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		if(key == EMPTY) return hasEmptyKey ? emptyKeyValue : null;
+		int mask = keys.length - 1;
+		for(int slot = mix(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+			if(keys[slot] == key) return (V) values[slot];
+		}
+		return null;
+	}
+	/**
+	 * Returns true if the specified key is in the map
+	 * @param key the key
+	 * @return true if the key is in the map
+	 */
+	public boolean containsKey(long key) {
+		if(key == EMPTY) return hasEmptyKey;
+		int mask = keys.length - 1;
+		for(int slot = mix(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+			if(keys[slot] == key) return true;
+		}
+		return false;
+	}
+	/**
+	 * Maps the specified key to the specified value
+	 * @param key the key
+	 * @param value the value
+	 */
+	public void put(long key, V value) {
+		insert(key, value, true);
+	}
+	/**
+	 * Maps the specified key to the specified value unless the key is already in the map
+	 * @param key the key
+	 * @param value the value
+	 * @return the value already mapped to the key, or null if the value was put
+	 */
+	public V putIfAbsent(long key, V value) {
+		return insert(key, value, false);
+	}
+	/**
+	 * Removes the specified key from the map
+	 * @param key the key
+	 * @return true if the key was in the map
+	 */
+	public boolean remove(long key) {
+		if(key == EMPTY) {
+			if(!hasEmptyKey) return false;
+			hasEmptyKey = false;
+			emptyKeyValue = null;
+			size--;
+			return true;
+		}
+		int mask = keys.length - 1;
+		int slot = mix(key) & mask;
+		while(keys[slot] != key) {
+			if(keys[slot] == EMPTY) return false;
+			slot = (slot + 1) & mask;
+		}
+		
+		//Shift back the following entries of the probe run so lookups do not stop early
+		int gap = slot;
+		slot = (slot + 1) & mask;
+		while(keys[slot] != EMPTY) {
+			int home = mix(keys[slot]) & mask;
+			if(((slot - home) & mask) >= ((slot - gap) & mask)) {
+				keys[gap] = keys[slot];
+				values[gap] = values[slot];
+				gap = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[gap] = EMPTY;
+		values[gap] = null;
+		size--;
+		return true;
+	}
+	/**
+	 * the getter for the number of keys in the map
+	 * @return the number of keys
+	 */
+	public int size() {
+		return size;
+	}
+	/**
+	 * Returns true if the map holds no keys
+	 * @return true if the map is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	/**
+	 * Grows the table so it can hold the specified number of keys without rehashing
+	 * @param expected the number of keys
+	 */
+	public void ensureCapacity(int expected) {
+		int capacity = capacityFor(expected);
+		if(capacity > keys.length) rehash(capacity);
+	}
+	/**
+	 * Puts the key into the map
+	 * @param key the key
+	 * @param value the value
+	 * @param replace true to replace the value of a key already in the map
+	 * @return the value the key had before, or null if it was not in the map
+	 */
+	@SuppressWarnings("unchecked")
+	private V insert(long key, V value, boolean replace) {
+		if(key == EMPTY) {
+			V old = emptyKeyValue;
+			if(!hasEmptyKey) {
+				size++;
+				hasEmptyKey = true;
+				emptyKeyValue = value;
+			} else if(replace) {
+				emptyKeyValue = value;
+			}
+			return old;
+		}
+		int mask = keys.length - 1;
+		int slot = mix(key) & mask;
+		while(keys[slot] != EMPTY) {
+			if(keys[slot] == key) {
+				V old = (V) values[slot];
+				if(replace) values[slot] = value;
+				return old;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		size++;
+		if(size * 2 > keys.length) rehash(keys.length * 2);
+		return null;
+	}
+	/**
+	 * Returns the table capacity that holds the specified number of keys at most half full
+	 * @param expected the number of keys
+	 * @return the capacity, a power of two
+	 */
+	private static int capacityFor(int expected) {
+		return Integer.highestOneBit(Math.max(expected, 4) * 2 - 1) * 2;
+	}
+	/**
+	 * Spreads the bits of the key so that keys differing only in their high or low half do not cluster
+	 * @param key the key
+	 * @return the mixed hash
+	 */
+	private static int mix(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+	/**
+	 * Moves every entry into a table of the specified capacity
+	 * @param capacity the new capacity, a power of two
+	 */
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new long[capacity];
+		values = new Object[capacity];
+		Arrays.fill(keys, EMPTY);
+		int mask = capacity - 1;
+		for(int i = 0; i < oldKeys.length; i++) {
+			if(oldKeys[i] == EMPTY) continue;
+			int slot = mix(oldKeys[i]) & mask;
+			while(keys[slot] != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = oldKeys[i];
+			values[slot] = oldValues[i];
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.saimaddhi.graph.primitive;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+/**
+ * A parallel least significant digit radix sort of signed longs, one byte per pass. The array is split into blocks
+ * that are counted and scattered on the common fork join pool, and a byte on which every key agrees is skipped, so
+ * keys such as packed (weight, index) pairs with small weights only take a few passes over memory
+ * @author saimaddhi
+ *
+ */
+public class RadixSort {
+	/**
+	 * Arrays shorter than this are sorted with Arrays.sort
+	 */
+	private static final int THRESHOLD = 1 << 16;
+	/**
+	 * The fewest keys per block
+	 */
+	private static final int MIN_BLOCK = 1 << 15;
+	/**
+	 * This class only has static methods
+	 */
+	private RadixSort() {
+	}
+	/**
+	 * Sorts the keys in increasing order
+	 * @param keys the keys
+	 */
+	public static void sort(long[] keys) {
+		sort(keys, 0);
+	}
+	/**
+	 * Sorts the keys in increasing order of their bytes from firstByte up, keeping the current order of keys that
+	 * agree on those bytes. If the keys are already in order of their lower bytes, such as packed (weight, index) keys
+	 * made in index order with a firstByte of 4, the result is fully sorted without passes over the lower bytes
+	 * @param keys the keys, already in order of their bytes below firstByte
+	 * @param firstByte the lowest byte to sort by, 0 to 7
+	 */
+	public static void sort(long[] keys, int firstByte) {
+		int n = keys.length;
+		if(n < THRESHOLD) {
+			Arrays.sort(keys);
+			return;
+		}
+		int blocks = (int) Math.min(ForkJoinPool.getCommonPoolParallelism() * 4L, (n + MIN_BLOCK - 1) / MIN_BLOCK);
+		blocks = Math.max(blocks, 1);
+		int[] bounds = new int[blocks + 1];
+		for(int b = 0; b <= blocks; b++) {
+			bounds[b] = (int) ((long) n * b / blocks);
+		}
+		
+		//Find the bytes on which the keys differ
+		long[] differing = IntStream.range(0, blocks).parallel().mapToObj(b -> {
+			long and = -1L;
+			long or = 0L;
+			for(int i = bounds[b]; i < bounds[b + 1]; i++) {
+				and &= keys[i];
+				or |= keys[i];
+			}
+			return new long[] {and, or};
+		}).reduce(new long[] {-1L, 0L}, (a, c) -> new long[] {a[0] & c[0], a[1] | c[1]});
+		long varying = differing[0] ^ differing[1];
+		
+		long[] source = keys;
+		long[] target = null;
+		for(int d = firstByte; d < 8; d++) {
+			if(((varying >>> (8 * d)) & 0xFF) == 0) continue;
+			if(target == null) target = new long[n];
+			pass(source, target, bounds, 8 * d, (d == 7) ? 0x80 : 0);
+			long[] swap = source;
+			source = target;
+			target = swap;
+		}
+		if(source != keys) System.arraycopy(source, 0, keys, 0, n);
+	}
+	/**
+	 * Stably scatters the keys by one byte
+	 * @param source the keys
+	 * @param target the array the keys are scattered into
+	 * @param bounds the block boundaries
+	 * @param shift the position of the byte
+	 * @param flip the bits flipped in the byte, 0x80 for the sign byte so that negative keys come first
+	 */
+	private static void pass(long[] source, long[] target, int[] bounds, int shift, int flip) {
+		int blocks = bounds.length - 1;
+		int[][] counts = new int[blocks][];
+		IntStream.range(0, blocks).parallel().forEach(b -> {
+			int[] count = new int[256];
+			for(int i = bounds[b]; i < bounds[b + 1]; i++) {
+				count[(((int) (source[i] >>> shift)) & 0xFF) ^ flip]++;
+			}
+			counts[b] = count;
+		});
+		
+		//Turn the counts into the first target position of every digit in every block
+		int position = 0;
+		for(int digit = 0; digit < 256; digit++) {
+			for(int b = 0; b < blocks; b++) {
+				int count = counts[b][digit];
+				counts[b][digit] = position;
+				position += count;
+			}
+		}
+		
+		IntStream.range(0, blocks).parallel().forEach(b -> {
+			int[] next = counts[b];
+			for(int i = bounds[b]; i < bounds[b + 1]; i++) {
+				long key = source[i];
+				target[next[(((int) (key >>> shift)) & 0xFF) ^ flip]++] = key;
+			}
+		});
+	}
+}